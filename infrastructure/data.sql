@@ -1,6 +1,20 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS token_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS warehouse_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS delivery_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS stock_movement_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS item_code_seq START WITH 0 MINVALUE 0 INCREMENT BY 1000;
+
 CREATE TABLE IF NOT EXISTS users
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id        BIGINT PRIMARY KEY,
     firstname VARCHAR(20)  NOT NULL,
     lastname  VARCHAR(20)  NOT NULL,
     email     VARCHAR(120) NOT NULL UNIQUE,
@@ -10,35 +24,49 @@ CREATE TABLE IF NOT EXISTS users
 
 CREATE TABLE IF NOT EXISTS token
 (
-    id         BIGSERIAL PRIMARY KEY,
-    token      VARCHAR(255) UNIQUE NOT NULL,
+    id         BIGINT PRIMARY KEY,
+    token      VARCHAR(1024) UNIQUE NOT NULL,
+    jti        VARCHAR(36),
+    expires_at TIMESTAMP WITH TIME ZONE,
     token_type VARCHAR(50)         NOT NULL,
     expired    BOOLEAN             NOT NULL DEFAULT FALSE,
     revoked    BOOLEAN             NOT NULL DEFAULT FALSE,
-    user_Id    BIGINT              NOT NULL
+    revoked_at TIMESTAMP WITH TIME ZONE,
+    user_Id    BIGINT
+    );
+
+CREATE TABLE IF NOT EXISTS warehouse_site
+(
+    id                 INTEGER PRIMARY KEY CHECK (id BETWEEN 1 AND 4095),
+    prefix             VARCHAR(8)  NOT NULL UNIQUE CHECK (prefix ~ '^[A-Z]+$'),
+    name               VARCHAR(50) NOT NULL,
+    warehouse_location VARCHAR(255),
+    active             BOOLEAN     NOT NULL DEFAULT TRUE
     );
 
 CREATE TABLE IF NOT EXISTS warehouse
 (
-    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    warehouse_location  VARCHAR(255) NOT NULL CHECK (warehouse_location IN ('Warsaw', 'Krakow', 'Rzeszow')),
+    id                 BIGINT PRIMARY KEY,
+    warehouse_location  VARCHAR(255),
+    site_id            INTEGER REFERENCES warehouse_site (id),
     user_id            BIGINT NOT NULL
     );
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id            BIGINT PRIMARY KEY,
     name          VARCHAR(50) NOT NULL,
     item_code      VARCHAR(50) NOT NULL,
     quantity      INTEGER     NOT NULL,
     location_code  VARCHAR(50),
+    location_key   BIGINT,
     user_id       BIGINT,
     warehouse_id  BIGINT
     );
 
 CREATE TABLE IF NOT EXISTS delivery
 (
-    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id                 BIGINT PRIMARY KEY,
     supplier           VARCHAR(50) NOT NULL,
     date               DATE,
     number_delivery     VARCHAR(255),
@@ -46,14 +74,71 @@ CREATE TABLE IF NOT EXISTS delivery
     item_code           VARCHAR(255),
     quantity           INTEGER     NOT NULL,
     delivery_status     VARCHAR(255) CHECK (delivery_status IN ('CREATED', 'IN_PROGRESS', 'DELIVERED', 'CANCELLED')),
-    warehouse_location  VARCHAR(255) CHECK (warehouse_location IN ('Warsaw', 'Krakow', 'Rzeszow')),
+    warehouse_location  VARCHAR(255),
+    site_id            INTEGER REFERENCES warehouse_site (id),
     user_id            BIGINT,
     item_id            BIGINT
     );
 
+CREATE TABLE IF NOT EXISTS delivery_counter
+(
+    period     VARCHAR(7) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+    );
+
+CREATE TABLE IF NOT EXISTS stock_movement
+(
+    id             BIGINT PRIMARY KEY,
+    item_id        BIGINT      NOT NULL,
+    movement_type  VARCHAR(20) NOT NULL CHECK (movement_type IN ('OPENING', 'RECEIPT', 'ADJUSTMENT', 'RELOCATION', 'PICK')),
+    quantity_delta INTEGER     NOT NULL,
+    from_location  VARCHAR(50),
+    to_location    VARCHAR(50),
+    reference      VARCHAR(255),
+    user_id        BIGINT,
+    occurred_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    drain_seq      BIGINT
+    );
+
+CREATE TABLE IF NOT EXISTS stock_movement_pending
+(
+    movement_id      BIGINT PRIMARY KEY,
+    item_id          BIGINT  NOT NULL,
+    quantity_delta   INTEGER NOT NULL,
+    counted_quantity INTEGER
+    );
+
+CREATE TABLE IF NOT EXISTS stock_snapshot
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    taken_at         TIMESTAMP WITH TIME ZONE NOT NULL,
+    snapshot_date    DATE UNIQUE,
+    last_drain_seq   BIGINT  NOT NULL DEFAULT 0,
+    item_count       INTEGER NOT NULL,
+    payload          BYTEA   NOT NULL
+    );
+
+CREATE TABLE IF NOT EXISTS stock_projection
+(
+    id             INTEGER PRIMARY KEY,
+    last_drain_seq BIGINT NOT NULL
+    );
+
+CREATE TABLE IF NOT EXISTS location_slot
+(
+    location_code VARCHAR(50) PRIMARY KEY,
+    item_id       BIGINT
+    );
+
 ALTER TABLE token
     ADD CONSTRAINT fk_token_user FOREIGN KEY (user_Id) REFERENCES users (id);
 
+CREATE INDEX IF NOT EXISTS ix_token_expires_at ON token (expires_at);
+
+CREATE INDEX IF NOT EXISTS ix_token_user_valid ON token (user_Id, expired, revoked);
+
+CREATE INDEX IF NOT EXISTS ix_token_revoked_at ON token (revoked_at);
+
 ALTER TABLE warehouse
     ADD CONSTRAINT fk_warehouse_user FOREIGN KEY (user_id) REFERENCES users (id);
 
@@ -65,12 +150,89 @@ ALTER TABLE delivery
     ADD CONSTRAINT fk_delivery_user FOREIGN KEY (user_id) REFERENCES users (id),
     ADD CONSTRAINT fk_delivery_item FOREIGN KEY (item_id) REFERENCES items (id);
 
-INSERT INTO users (firstname, lastname, email, password, role) VALUES (
+ALTER TABLE location_slot
+    ADD CONSTRAINT fk_location_slot_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_items_location_code ON items (location_code) WHERE location_code IS NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_items_item_code ON items (item_code);
+
+CREATE INDEX IF NOT EXISTS ix_items_name_prefix ON items (name varchar_pattern_ops, id);
+
+CREATE INDEX IF NOT EXISTS ix_items_location_prefix ON items (location_code varchar_pattern_ops, id);
+
+CREATE INDEX IF NOT EXISTS ix_items_location ON items (location_key);
+
+CREATE INDEX IF NOT EXISTS ix_items_warehouse_id ON items (warehouse_id, id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_warehouse_site_location ON warehouse_site (warehouse_location)
+    WHERE warehouse_location IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ix_delivery_status_site ON delivery (delivery_status, site_id, id);
+
+CREATE INDEX IF NOT EXISTS ix_delivery_site_date ON delivery (site_id, date, id);
+
+CREATE INDEX IF NOT EXISTS ix_delivery_supplier_prefix ON delivery (lower(supplier) varchar_pattern_ops, id);
+
+CREATE INDEX IF NOT EXISTS ix_delivery_item_code ON delivery (item_code, id);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_delivery_supplier_trgm ON delivery USING gin (upper(supplier) gin_trgm_ops);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_delivery_number ON delivery (number_delivery);
+
+CREATE INDEX IF NOT EXISTS ix_stock_movement_item_time ON stock_movement (item_id, occurred_at);
+
+CREATE INDEX IF NOT EXISTS ix_stock_movement_time ON stock_movement (occurred_at);
+
+CREATE INDEX IF NOT EXISTS ix_stock_movement_drain_seq ON stock_movement (drain_seq);
+
+CREATE INDEX IF NOT EXISTS ix_stock_snapshot_taken_at ON stock_snapshot (taken_at);
+
+INSERT INTO users (id, firstname, lastname, email, password, role) VALUES (nextval('users_seq'),
 'Admin', 'Admin', 'admin@maghouse.pl', '$2a$10$hnGvBpLjNyfjELnUWkMHh.5skUmiv2luEElKtIZdQPmJR9SuuFC.i', 'ADMIN');
 
-INSERT INTO warehouse (warehouse_location, user_id) VALUES ('Rzeszow', 1)
+INSERT INTO warehouse_site (id, prefix, name, warehouse_location, active)
+VALUES (1, 'W', 'Warsaw', 'Warsaw', TRUE),
+       (2, 'K', 'Krakow', 'Krakow', TRUE),
+       (3, 'R', 'Rzeszow', 'Rzeszow', TRUE)
+    ON CONFLICT (id) DO NOTHING;
+
+INSERT INTO warehouse (id, warehouse_location, site_id, user_id) VALUES (nextval('warehouse_seq'), 'Rzeszow', 3, 1)
     ON CONFLICT (id) DO NOTHING;
 
-INSERT INTO items (name, item_code, quantity, location_code, user_id, warehouse_id)
-VALUES ('Screw', '1234-05-234-1234', 1500, 'RS01A', 1, 1 )
+INSERT INTO items (id, name, item_code, quantity, location_code, user_id, warehouse_id)
+VALUES (nextval('items_seq'), 'Screw', '1234-05-234-1234', 1500, 'RS01A', 1, 1 )
     ON CONFLICT (id) DO NOTHING;
+
+UPDATE items
+SET location_key = (CAST(COALESCE((SELECT ws.id FROM warehouse_site ws
+                                     WHERE ws.prefix = substring(location_code FROM '^([A-Z]*)[SDC][0-9]')), 0) AS BIGINT) << 36)
+    | (CAST(CASE substring(location_code FROM '([SDC])[0-9]+[A-Z]$') WHEN 'S' THEN 0 WHEN 'D' THEN 1 WHEN 'C' THEN 2 END
+            AS BIGINT) << 32)
+    | (CAST(substring(location_code FROM '([0-9]+)[A-Z]$') AS BIGINT) << 8)
+    | (ascii(substring(location_code FROM '([A-Z])$')) - ascii('A'))
+WHERE location_code ~ '^[A-Z]*[SDC][0-9]{1,7}[A-Z]$'
+  AND (location_code ~ '^[SDC][0-9]'
+       OR EXISTS (SELECT 1 FROM warehouse_site ws
+                  WHERE ws.prefix = substring(location_code FROM '^([A-Z]*)[SDC][0-9]')))
+  AND location_key IS NULL;
+
+INSERT INTO location_slot (location_code, item_id)
+SELECT location_code, id FROM items WHERE location_code IS NOT NULL
+    ON CONFLICT DO NOTHING;
+
+INSERT INTO stock_movement (id, item_id, movement_type, quantity_delta, to_location, occurred_at, drain_seq)
+SELECT nextval('stock_movement_seq'), id, 'OPENING', quantity, location_code, now(), 1 FROM items i
+WHERE NOT EXISTS (SELECT 1 FROM stock_movement m WHERE m.item_id = i.id);
+
+INSERT INTO stock_projection (id, last_drain_seq) VALUES (1, 1)
+    ON CONFLICT (id) DO NOTHING;
+
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users));
+SELECT setval('token_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM token));
+SELECT setval('warehouse_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM warehouse));
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM items));
+SELECT setval('delivery_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM delivery));
+SELECT setval('stock_movement_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM stock_movement));
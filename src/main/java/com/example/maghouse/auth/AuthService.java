@@ -2,6 +2,7 @@ package com.example.maghouse.auth;
 
 import com.example.maghouse.auth.login.LoginRequest;
 import com.example.maghouse.auth.login.jwt.JwtService;
+import com.example.maghouse.auth.login.jwt.ValidatedToken;
 import com.example.maghouse.mapper.TokenResponseToTokenMapper;
 import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.token.Token;
@@ -21,6 +22,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Service
 @AllArgsConstructor
@@ -63,8 +65,11 @@ public class AuthService {
     }
 
     public void savedUserToken(User user, String jwtToken) {
+        var validatedToken = jwtService.validate(jwtToken);
         var token = Token.builder()
                 .token(jwtToken)
+                .jti(validatedToken.map(ValidatedToken::getTokenId).orElse(null))
+                .expiresAt(validatedToken.map(ValidatedToken::getExpiration).orElse(null))
                 .tokenType(TokenType.Bearer)
                 .expired(false)
                 .revoked(false)
@@ -81,10 +86,11 @@ public class AuthService {
             return;
         }
         final String refreshToken = authHeader.substring(7);
-        final String userEmail = jwtService.extractUserEmail(refreshToken);
-        if (userEmail != null) {
-            var user = userService.findByEmail(userEmail);
-            if (jwtService.isValidToken(refreshToken, user)) {
+        Optional<ValidatedToken> validatedToken = jwtService.validate(refreshToken)
+                .filter(token -> token.getSubject() != null);
+        if (validatedToken.isPresent()) {
+            var user = userService.findByEmail(validatedToken.get().getSubject());
+            if (validatedToken.get().isIssuedFor(user)) {
                 refreshAndRespond(user, refreshToken, response);
             }
         }
@@ -101,14 +107,7 @@ public class AuthService {
     }
 
     private void revokeAllUserTokens(User user) {
-        var validUserTokens = tokenRepository.findAllValidTokenByUser(user.getId());
-        if (validUserTokens.isEmpty())
-            return;
-        validUserTokens.forEach(token -> {
-            token.setExpired(true);
-            token.setRevoked(true);
-        });
-        tokenRepository.saveAll(validUserTokens);
+        jwtService.revokeAllUserTokens(user.getId());
     }
 
 }
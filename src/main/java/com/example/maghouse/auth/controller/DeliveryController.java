@@ -2,9 +2,12 @@ package com.example.maghouse.auth.controller;
 
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.delivery.DeliveryEntity;
+import com.example.maghouse.delivery.DeliveryFilter;
+import com.example.maghouse.delivery.DeliveryPage;
 import com.example.maghouse.delivery.DeliveryRequest;
 import com.example.maghouse.delivery.DeliveryResponse;
 import com.example.maghouse.delivery.DeliveryService;
+import com.example.maghouse.delivery.SupplierMatch;
 import com.example.maghouse.delivery.status.DeliveryStatus;
 import com.example.maghouse.delivery.status.DeliveryStatusRequest;
 import com.example.maghouse.mapper.DeliveryResponseToDeliveryMapper;
@@ -18,11 +21,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -54,6 +61,70 @@ public class DeliveryController  {
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search deliveries",
+            description = "Returns deliveries matching every given filter in id order, one page at a time. " +
+                    "Pass the returned nextCursor as 'after' to get the next page. Supplier matches by " +
+                    "case-insensitive prefix; dates are inclusive.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved deliveries",
+                    content = @Content(schema = @Schema(implementation = DeliveryPage.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    public ResponseEntity<DeliveryPage> searchDeliveries(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) DeliveryStatus status,
+            @RequestParam(required = false) WarehouseLocation warehouseLocation,
+            @RequestParam(required = false) Integer siteId,
+            @RequestParam(required = false) String supplier,
+            @RequestParam(required = false) String itemCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            Authentication authentication) {
+        User user = authenticationHelper.getAuthenticatedUser(authentication);
+        DeliveryFilter filter = DeliveryFilter.builder()
+                .deliveryStatus(status)
+                .warehouseLocation(warehouseLocation)
+                .siteId(siteId)
+                .supplier(supplier)
+                .itemCode(itemCode)
+                .dateFrom(dateFrom)
+                .dateTo(dateTo)
+                .build();
+        return ResponseEntity.ok(deliveryService.searchDeliveries(after, size, filter));
+    }
+
+    @GetMapping("/suppliers")
+    @Operation(summary = "Find suppliers by name",
+            description = "Type-ahead lookup of supplier names containing the query, ignoring case. " +
+                    "Names starting with the query come first, then the suppliers with the most deliveries.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved matching suppliers"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    public ResponseEntity<List<SupplierMatch>> searchSuppliers(@RequestParam String query,
+                                                               @RequestParam(defaultValue = "10") int limit,
+                                                               Authentication authentication) {
+        User user = authenticationHelper.getAuthenticatedUser(authentication);
+        return ResponseEntity.ok(deliveryService.searchSuppliers(query, limit));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all deliveries",
+            description = "Streams every delivery as newline-delimited JSON, one delivery per line, in id order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deliveries are being streamed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    public ResponseEntity<StreamingResponseBody> exportDeliveries(Authentication authentication) {
+        User user = authenticationHelper.getAuthenticatedUser(authentication);
+        StreamingResponseBody body = deliveryService::exportDeliveries;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/status/{status}")
     @Operation(summary = "Get deliveries by status", description = "Retrieves deliveries filtered by delivery status.")
     @ApiResponses(value = {
@@ -132,6 +203,26 @@ public class DeliveryController  {
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping("/site/{siteId}")
+    @Operation(summary = "Get deliveries by warehouse site", description = "Retrieves deliveries filtered by warehouse site id.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved deliveries by site"),
+            @ApiResponse(responseCode = "404", description = "No deliveries found for the given site"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    public ResponseEntity<List<DeliveryResponse>> getDeliveriesBySite(@PathVariable int siteId,
+                                                                      Authentication authentication) {
+        User user = authenticationHelper.getAuthenticatedUser(authentication);
+        List<DeliveryEntity> deliveries = deliveryService.getDeliveriesBySite(siteId);
+        if (deliveries.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        List<DeliveryResponse> responses = deliveries.stream()
+                .map(deliveryResponseToDeliveryMapper::mapToResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(responses);
+    }
+
     @GetMapping("/item/{itemCode}")
     @Operation(summary = "Get deliveries by item code", description = "Retrieves deliveries filtered by item code.")
     @ApiResponses(value = {
@@ -2,11 +2,16 @@ package com.example.maghouse.auth.controller;
 
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.item.ItemEntity;
+import com.example.maghouse.item.ItemFilter;
+import com.example.maghouse.item.ItemPage;
 import com.example.maghouse.item.ItemRequest;
 import com.example.maghouse.item.ItemResponse;
 import com.example.maghouse.item.ItemService;
+import com.example.maghouse.item.ItemSummary;
 import com.example.maghouse.mapper.ItemResponseToItemMapper;
 import com.example.maghouse.security.AuthenticationHelper;
+import com.example.maghouse.stock.StockLedger;
+import com.example.maghouse.stock.StockLevel;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,14 +20,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.Instant;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RequestMapping(path = "/items/")
 @RestController
@@ -32,26 +39,51 @@ import java.util.stream.Collectors;
 public class ItemController {
 
     private final ItemService itemService;
+    private final StockLedger stockLedger;
     private final ItemResponseToItemMapper itemResponseToItemMapper;
     private final AuthenticationHelper authenticationHelper;
 
     @GetMapping
-    @Operation(summary = "Retrieve a list of all items",
-            description = "Returns a list of all item types currently in the warehouse inventory.")
+    @Operation(summary = "Retrieve a page of items",
+            description = "Returns items in id order, one page at a time. Pass the returned nextCursor " +
+                    "as 'after' to get the next page. Optionally filtered by name prefix, location prefix " +
+                    "and warehouse.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved items",
-                    content = @Content(schema = @Schema(implementation = ItemResponse.class))),
+                    content = @Content(schema = @Schema(implementation = ItemPage.class))),
             @ApiResponse(responseCode = "403", description = "Access denied",
                     content = @Content)
     })
-    public ResponseEntity<List<ItemResponse>> getAllItems(Authentication authentication) {
+    public ResponseEntity<ItemPage> getItems(@RequestParam(required = false) Long after,
+                                             @RequestParam(defaultValue = "50") int size,
+                                             @RequestParam(required = false) String namePrefix,
+                                             @RequestParam(required = false) String locationPrefix,
+                                             @RequestParam(required = false) Long warehouseId,
+                                             Authentication authentication) {
         User user = authenticationHelper.getAuthenticatedUser(authentication);
-        List<ItemEntity> items = itemService.getAllItems();
-        List<ItemResponse> itemResponses = items.stream()
-                .map(itemResponseToItemMapper::mapToItem)
-                .collect(Collectors.toList());
+        ItemFilter filter = ItemFilter.builder()
+                .namePrefix(namePrefix)
+                .locationPrefix(locationPrefix)
+                .warehouseId(warehouseId)
+                .build();
+        return ResponseEntity.ok(itemService.listItems(after, size, filter));
+    }
 
-        return ResponseEntity.ok(itemResponses);
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export the whole inventory",
+            description = "Streams every item as newline-delimited JSON, one item per line, in id order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Items are being streamed",
+                    content = @Content(schema = @Schema(implementation = ItemSummary.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied",
+                    content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> exportItems(Authentication authentication) {
+        User user = authenticationHelper.getAuthenticatedUser(authentication);
+        StreamingResponseBody body = itemService::exportItems;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{itemCode}")
@@ -73,6 +105,24 @@ public class ItemController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{itemId}/stock")
+    @Operation(summary = "Retrieve the stock of an item at a point in time",
+            description = "Returns the quantity of the item as recorded in the stock ledger at the given " +
+                    "instant, or now when no instant is given.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the stock level",
+                    content = @Content(schema = @Schema(implementation = StockLevel.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied",
+                    content = @Content)
+    })
+    public ResponseEntity<StockLevel> getStockLevel(@PathVariable Long itemId,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+                                                    Authentication authentication) {
+        User user = authenticationHelper.getAuthenticatedUser(authentication);
+        return ResponseEntity.ok(stockLedger.stockAt(itemId, at == null ? Instant.now() : at));
+    }
+
     @PostMapping
     @Operation(summary = "Create a new item",
             description = "Adds a new unique item type to the warehouse inventory.")
@@ -109,7 +159,7 @@ public class ItemController {
                                                            @RequestBody ItemRequest itemRequest,
                                                            Authentication authentication) {
         User user = authenticationHelper.getAuthenticatedUser(authentication);
-        ItemEntity updatedItem = itemService.updateItemQuantity(itemId, itemRequest, user);
+        ItemSummary updatedItem = itemService.updateItemQuantity(itemId, itemRequest, user);
         ItemResponse updatedItemResponse = itemResponseToItemMapper.mapToItem(updatedItem);
         return ResponseEntity.ok(updatedItemResponse);
     }
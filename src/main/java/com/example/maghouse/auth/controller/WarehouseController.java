@@ -6,11 +6,15 @@ import com.example.maghouse.item.ItemResponse;
 import com.example.maghouse.mapper.ItemResponseToItemMapper;
 import com.example.maghouse.mapper.WarehouseResponseToWarehouseMapper;
 import com.example.maghouse.security.AuthenticationHelper;
+import com.example.maghouse.stock.LocationStockLevel;
+import com.example.maghouse.stock.StockSnapshotService;
 import com.example.maghouse.warehouse.WarehouseEntity;
 import com.example.maghouse.warehouse.WarehouseRequest;
 import com.example.maghouse.warehouse.WarehouseResponse;
 import com.example.maghouse.warehouse.WarehouseService;
+import com.example.maghouse.warehouse.location.WarehouseLocation;
 import com.example.maghouse.warehouse.location.WarehouseLocationRequest;
+import com.example.maghouse.warehouse.spacetype.ItemSpaceTypeRequest;
 import com.example.maghouse.warehouse.spacetype.WarehouseSpaceTypeRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,11 +25,13 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -39,6 +45,7 @@ import java.util.stream.Collectors;
 public class WarehouseController {
 
     private final WarehouseService warehouseService;
+    private final StockSnapshotService stockSnapshotService;
     private final WarehouseResponseToWarehouseMapper warehouseResponseToWarehouseMapper;
     private final ItemResponseToItemMapper itemResponseToItemMapper;
     private final AuthenticationHelper authenticationHelper;
@@ -95,6 +102,44 @@ public class WarehouseController {
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping("/stock/{warehouseLocation}")
+    @Operation(summary = "Retrieve the stock of a warehouse at a point in time",
+            description = "Returns the quantity of every item located in the warehouse (Warsaw, Krakow, Rzeszow) " +
+                    "at the given instant, rebuilt from the latest stock snapshot and the movements after it.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved stock levels",
+                    content = @Content(schema = @Schema(implementation = LocationStockLevel.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden (Access denied)",
+                    content = @Content)
+    })
+    public ResponseEntity<List<LocationStockLevel>> getStockAt(
+            @PathVariable WarehouseLocation warehouseLocation,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+            Authentication authentication) {
+        User user = authenticationHelper.getAuthenticatedUser(authentication);
+        log.info("User {} requested stock of {} at {}", user.getEmail(), warehouseLocation, at);
+        return ResponseEntity.ok(stockSnapshotService.stockAt(warehouseLocation.getSiteId(), at));
+    }
+
+    @GetMapping("/stock/site/{siteId}")
+    @Operation(summary = "Retrieve the stock of a warehouse site at a point in time",
+            description = "Returns the quantity of every item located in the warehouse site with the given id " +
+                    "at the given instant, rebuilt from the latest stock snapshot and the movements after it.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved stock levels",
+                    content = @Content(schema = @Schema(implementation = LocationStockLevel.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden (Access denied)",
+                    content = @Content)
+    })
+    public ResponseEntity<List<LocationStockLevel>> getSiteStockAt(
+            @PathVariable int siteId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+            Authentication authentication) {
+        User user = authenticationHelper.getAuthenticatedUser(authentication);
+        log.info("User {} requested stock of site {} at {}", user.getEmail(), siteId, at);
+        return ResponseEntity.ok(stockSnapshotService.stockAt(siteId, at));
+    }
+
     @PostMapping
     @Operation(summary = "Create a new warehouse",
             description = "Initializes a new warehouse structure in the system.")
@@ -140,6 +185,28 @@ public class WarehouseController {
 
     }
 
+    @PostMapping("/assign-space-type")
+    @Operation(summary = "Assign space types to many items",
+            description = "Places a batch of items (e.g. an inbound pallet) in one transaction. Either all items get a location code or none does.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Space types successfully assigned to all items",
+                    content = @Content(schema = @Schema(implementation = ItemResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Item not found, already placed or no free slot left",
+                    content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden (manager:update required)",
+                    content = @Content)
+    })
+    public ResponseEntity<List<ItemResponse>> assignSpaceTypes(@RequestBody List<ItemSpaceTypeRequest> itemSpaceTypeRequests,
+                                                               Authentication authentication) {
+        User user = authenticationHelper.getAuthenticatedUser(authentication);
+        log.info("User {} requested space types for {} items", user.getEmail(), itemSpaceTypeRequests.size());
+        List<ItemEntity> items = warehouseService.assignWarehouseSpaceTypes(itemSpaceTypeRequests, user);
+        List<ItemResponse> responses = items.stream()
+                .map(itemResponseToItemMapper::mapToItem)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(responses);
+    }
+
     @PostMapping("/assign-location/{itemId}")
     @Operation(summary = "Assign item to a warehouse location",
             description = "Assigns the item's current stock to a specific physical location in the warehouse.")
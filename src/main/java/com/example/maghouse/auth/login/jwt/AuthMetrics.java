@@ -0,0 +1,106 @@
+package com.example.maghouse.auth.login.jwt;
+
+import com.example.maghouse.auth.registration.role.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-registered counters and sampled stage timers for the bearer token pipeline.
+ */
+@Component
+public class AuthMetrics {
+
+    public static final long NOT_SAMPLED = -1;
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Stage {
+        PARSE("parse"),
+        VERIFY("verify"),
+        USER_LOAD("user_load"),
+        REVOCATION_CHECK("revocation_check");
+
+        private final String tag;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Rejection {
+        INVALID_TOKEN("invalid_token"),
+        REVOKED("revoked"),
+        USER_MISMATCH("user_mismatch");
+
+        private final String tag;
+    }
+
+    private final double timerSampleRate;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+    private final Map<Role, Counter> authentications = new EnumMap<>(Role.class);
+    private final Counter unknownRoleAuthentications;
+
+    public AuthMetrics(MeterRegistry meterRegistry,
+                       @Value("${maghouse.security.metrics.timer-sample-rate:0.1}") double timerSampleRate) {
+        if (timerSampleRate < 0 || timerSampleRate > 1) {
+            throw new IllegalArgumentException("Timer sample rate must be between 0 and 1!");
+        }
+        this.timerSampleRate = timerSampleRate;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("maghouse.auth.stage")
+                    .description("Time spent in a stage of bearer token authentication")
+                    .tag("stage", stage.getTag())
+                    .register(meterRegistry));
+        }
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, Counter.builder("maghouse.auth.rejected")
+                    .description("Bearer tokens that did not authenticate the request")
+                    .tag("reason", rejection.getTag())
+                    .register(meterRegistry));
+        }
+        for (Role role : Role.values()) {
+            authentications.put(role, authenticatedCounter(meterRegistry, role.getTag()));
+        }
+        this.unknownRoleAuthentications = authenticatedCounter(meterRegistry, "unknown");
+    }
+
+    /**
+     * Start of a timed stage, or {@link #NOT_SAMPLED} when this call falls outside the sample.
+     */
+    public long startTimer() {
+        if (timerSampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= timerSampleRate) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    public void record(Stage stage, long startNanos) {
+        if (startNanos != NOT_SAMPLED) {
+            stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void rejected(Rejection rejection) {
+        rejections.get(rejection).increment();
+    }
+
+    public void authenticated(Role role) {
+        (role == null ? unknownRoleAuthentications : authentications.get(role)).increment();
+    }
+
+    private static Counter authenticatedCounter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("maghouse.auth.authenticated")
+                .description("Requests authenticated with a bearer token")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
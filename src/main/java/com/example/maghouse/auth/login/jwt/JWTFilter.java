@@ -1,11 +1,12 @@
 package com.example.maghouse.auth.login.jwt;
 
-import com.example.maghouse.auth.registration.token.TokenRepository;
+import com.example.maghouse.auth.registration.user.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,14 +17,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class JWTFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
-    private final TokenRepository tokenRepository;
+    private final TokenDenylist tokenDenylist;
+    private final AuthMetrics authMetrics;
 
     @Override
     protected void doFilterInternal(
@@ -41,63 +45,58 @@ public class JWTFilter extends OncePerRequestFilter {
             return;
         }
         final String jwt = header.substring(7);
-        final String userEmail;
-        try {
-            userEmail = jwtService.extractUserEmail(jwt);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
         }
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null ){
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            var isValidToken = tokenRepository.findByToken(jwt)
-                    .map(t -> !t.isExpired() && !t.isRevoked())
-                    .orElse(false);
-            try {
-                if(jwtService.isValidToken(jwt, userDetails) && isValidToken) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    System.out.println("User authenticated: " + userEmail);
-
+        long verifyStart = authMetrics.startTimer();
+        Optional<ValidatedToken> validatedToken = jwtService.validate(jwt)
+                .filter(token -> token.getSubject() != null);
+        authMetrics.record(AuthMetrics.Stage.VERIFY, verifyStart);
+        if (validatedToken.isEmpty()) {
+            authMetrics.rejected(AuthMetrics.Rejection.INVALID_TOKEN);
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ValidatedToken token = validatedToken.get();
 
-                    userDetails.getAuthorities().forEach(grantedAuthority -> {
-                        System.out.println("Role: " + grantedAuthority.getAuthority());
-                    });
+        long revocationStart = authMetrics.startTimer();
+        boolean revoked = tokenDenylist.isRevoked(token, jwt);
+        authMetrics.record(AuthMetrics.Stage.REVOCATION_CHECK, revocationStart);
+        if (revoked) {
+            authMetrics.rejected(AuthMetrics.Rejection.REVOKED);
+            filterChain.doFilter(request, response);
+            return;
+        }
 
+        long userLoadStart = authMetrics.startTimer();
+        UserDetails userDetails = resolveUser(token);
+        authMetrics.record(AuthMetrics.Stage.USER_LOAD, userLoadStart);
+        if (!token.isValidFor(userDetails)) {
+            authMetrics.rejected(AuthMetrics.Rejection.USER_MISMATCH);
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-                    boolean isAdmin = userDetails.getAuthorities().stream()
-                            .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
-                    boolean isUser = userDetails.getAuthorities().stream()
-                            .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_USER"));
-                    boolean isDriver = userDetails.getAuthorities().stream()
-                            .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_DRIVER"));
-                    boolean isManager = userDetails.getAuthorities().stream()
-                            .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_MANAGER"));
-                    boolean isWarehouseman = userDetails.getAuthorities().stream()
-                            .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_WAREHOUSEMAN"));
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        authMetrics.authenticated(token.getRole());
+        log.debug("Authenticated {} with role {}", token.getSubject(), token.getRole());
+        filterChain.doFilter(request, response);
+    }
 
-                    if (isAdmin) {
-                        System.out.println("Logged in user is an Admin");
-                    } else if (isUser) {
-                        System.out.println("Logged in user is a User");
-                    } else if (isDriver) {
-                        System.out.println("Logged in user is a Driver");
-                    } else if (isManager) {
-                        System.out.println("Logged in user is a Manager");
-                    } else if (isWarehouseman) {
-                        System.out.println("Logged in user is a Warehouseman");
-                    }
-                }
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+    private UserDetails resolveUser(ValidatedToken validatedToken) {
+        Optional<User> user = validatedToken.toUser();
+        if (user.isPresent()) {
+            return user.get();
         }
-        filterChain.doFilter(request, response);
+        return userDetailsService.loadUserByUsername(validatedToken.getSubject());
     }
 }
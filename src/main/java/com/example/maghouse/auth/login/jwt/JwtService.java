@@ -2,38 +2,96 @@ package com.example.maghouse.auth.login.jwt;
 
 import com.example.maghouse.auth.registration.token.TokenRepository;
 import com.example.maghouse.auth.registration.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.GrantedAuthority;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
 
     private final SecretPropertiesReader secretPropertiesReader;
     private final TokenRepository tokenRepository;
+    private final TokenDenylist tokenDenylist;
+    private final AuthMetrics authMetrics;
+    private final Key signInKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, ValidatedToken> tokenCache;
+
+    /**
+     * The signing key and parser are built once. Verified tokens are cached until they
+     * expire, so a token's signature is checked once per lifetime instead of on every
+     * extract call.
+     */
+    public JwtService(SecretPropertiesReader secretPropertiesReader,
+                      TokenRepository tokenRepository,
+                      TokenDenylist tokenDenylist,
+                      AuthMetrics authMetrics,
+                      @Value("${maghouse.security.jwt.claims-cache-size:10000}") long claimsCacheSize) {
+        this.secretPropertiesReader = secretPropertiesReader;
+        this.tokenRepository = tokenRepository;
+        this.tokenDenylist = tokenDenylist;
+        this.authMetrics = authMetrics;
+        this.signInKey = createSignInKey();
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        this.tokenCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<String, ValidatedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, ValidatedToken validated, long currentTime) {
+                        return timeToExpiration(validated);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, ValidatedToken validated, long currentTime,
+                                                  long currentDuration) {
+                        return timeToExpiration(validated);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, ValidatedToken validated, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     public String getToken(UserDetails userDetails) {
         Map<String, Object> extraClaims = new HashMap<>();
-        List<String> roles = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList());
+        List<String> roles = userDetails instanceof User user && user.getRole() != null
+                ? user.getRole().getAuthorityNames()
+                : userDetails.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toList());
         extraClaims.put("roles", roles);
+        if (userDetails instanceof User user && user.getId() != null) {
+            extraClaims.put(ValidatedToken.USER_ID_CLAIM, user.getId());
+        }
         return generateToken(extraClaims, userDetails);
     }
 
@@ -50,10 +108,11 @@ public class JwtService {
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -62,26 +121,53 @@ public class JwtService {
     }
 
     public boolean isValidToken(String token, UserDetails userDetails) {
-        final String userEmail = extractUserEmail(token);
-        List<String> roles = extractClaim(token, claims -> claims.get("roles", List.class));
-        List<String> userRoles = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList());
-        return (userEmail.equals(userDetails.getUsername()))
-                && roles.containsAll(userRoles) && !isExpiredToken(token);
+        return validate(token)
+                .map(validated -> validated.isValidFor(userDetails))
+                .orElse(false);
     }
 
-    public void deleteTokenByUser(User user) {
-        var tokens = tokenRepository.findByUser(user);
-        tokenRepository.deleteAll(tokens);
+    /**
+     * Parses and verifies the token once. Empty when the signature is wrong, the token is
+     * malformed or it has expired.
+     */
+    public Optional<ValidatedToken> validate(String token) {
+        try {
+            ValidatedToken validated = verify(token);
+            return validated.isExpired() ? Optional.empty() : Optional.of(validated);
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
     }
 
-    private boolean isExpiredToken(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Revokes the user's tokens and detaches them from the user. The rows stay until they expire
+     * so the other instances pick the revocation up; TokenPurgeJob removes them afterwards.
+     */
+    public void deleteTokenByUser(User user) {
+        var tokens = tokenRepository.findByUser(user);
+        Instant now = Instant.now();
+        tokens.forEach(token -> {
+            token.setExpired(true);
+            token.setRevoked(true);
+            token.setRevokedAt(now);
+            token.setUser(null);
+        });
+        tokenRepository.saveAll(tokens);
+        tokenDenylist.revokeAll(tokens);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public void revokeAllUserTokens(Long userId) {
+        var validUserTokens = tokenRepository.findAllValidTokenByUser(userId);
+        if (validUserTokens.isEmpty())
+            return;
+        Instant now = Instant.now();
+        validUserTokens.forEach(token -> {
+            token.setExpired(true);
+            token.setRevoked(true);
+            token.setRevokedAt(now);
+        });
+        tokenRepository.saveAll(validUserTokens);
+        tokenDenylist.revokeAll(validUserTokens);
     }
 
     public String extractUserEmail(String token) {
@@ -89,27 +175,37 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsTFunction) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token).getClaims();
         if (claims == null ){
             throw new IllegalArgumentException("Claims cannot be null");
         }
         return claimsTFunction.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
+    private ValidatedToken verify(String token) {
+        ValidatedToken cached = tokenCache.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        ValidatedToken validated;
+        long parseStart = authMetrics.startTimer();
         try {
-            return Jwts
-                    .parserBuilder()
-                    .setSigningKey(getSignInKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            validated = new ValidatedToken(jwtParser.parseClaimsJws(token).getBody());
         } catch (Exception e) {
             throw new RuntimeException("Error extracting all claims from token");
+        } finally {
+            authMetrics.record(AuthMetrics.Stage.PARSE, parseStart);
         }
+        tokenCache.put(token, validated);
+        return validated;
+    }
+
+    private static long timeToExpiration(ValidatedToken validated) {
+        long remainingMillis = validated.getExpiration().toEpochMilli() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
     }
 
-    private Key getSignInKey() {
+    private Key createSignInKey() {
         try {
             String secretKey = secretPropertiesReader.readSecretKey();
             if (secretKey == null) {
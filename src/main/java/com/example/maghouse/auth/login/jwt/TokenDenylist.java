@@ -0,0 +1,129 @@
+package com.example.maghouse.auth.login.jwt;
+
+import com.example.maghouse.auth.registration.token.Token;
+import com.example.maghouse.auth.registration.token.TokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Revoked, unexpired tokens keyed by jti; rebuilt at startup and synced from the token table on every instance.
+ */
+@Component
+@Slf4j
+public class TokenDenylist {
+
+    private final TokenRepository tokenRepository;
+    private final SecretPropertiesReader secretPropertiesReader;
+    private final Duration syncOverlap;
+    private final Cache<String, Instant> revokedTokens;
+    private volatile Instant syncedUntil = Instant.EPOCH;
+
+    @Autowired
+    public TokenDenylist(TokenRepository tokenRepository, SecretPropertiesReader secretPropertiesReader,
+                         @Value("${maghouse.security.denylist.sync-overlap:PT1M}") Duration syncOverlap) {
+        this(tokenRepository, secretPropertiesReader, syncOverlap, Ticker.systemTicker());
+    }
+
+    TokenDenylist(TokenRepository tokenRepository, SecretPropertiesReader secretPropertiesReader,
+                  Duration syncOverlap, Ticker ticker) {
+        this.tokenRepository = tokenRepository;
+        this.secretPropertiesReader = secretPropertiesReader;
+        this.syncOverlap = syncOverlap;
+        this.revokedTokens = Caffeine.newBuilder()
+                .ticker(ticker)
+                .scheduler(Scheduler.systemScheduler())
+                .expireAfter(new Expiry<String, Instant>() {
+                    @Override
+                    public long expireAfterCreate(String key, Instant expiresAt, long currentTime) {
+                        return timeToExpiration(expiresAt);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Instant expiresAt, long currentTime, long currentDuration) {
+                        return timeToExpiration(expiresAt);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Instant expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @PostConstruct
+    public void load() {
+        Instant now = Instant.now();
+        revokedTokens.invalidateAll();
+        tokenRepository.findRevokedTokensValidAfter(now).forEach(this::revoke);
+        syncedUntil = now;
+        log.info("Loaded {} revoked tokens into the denylist", revokedTokens.estimatedSize());
+    }
+
+    /**
+     * Picks up tokens revoked on other instances. The window reaches back by the sync overlap
+     * so revocations that commit late are still seen; re-adding a known token is harmless.
+     */
+    @Scheduled(fixedDelayString = "${maghouse.security.denylist.sync-interval:PT5S}",
+            initialDelayString = "${maghouse.security.denylist.sync-interval:PT5S}")
+    public void sync() {
+        Instant now = Instant.now();
+        List<Token> revoked = tokenRepository.findRevokedSince(syncedUntil.minus(syncOverlap), now);
+        revokeAll(revoked);
+        syncedUntil = now;
+        log.debug("Synced {} revoked tokens into the denylist", revoked.size());
+    }
+
+    public boolean isRevoked(ValidatedToken validatedToken, String token) {
+        return revokedTokens.getIfPresent(keyOf(validatedToken.getTokenId(), token)) != null;
+    }
+
+    public void revoke(ValidatedToken validatedToken, String token) {
+        revokedTokens.put(keyOf(validatedToken.getTokenId(), token), validatedToken.getExpiration());
+    }
+
+    public void revoke(Token token) {
+        if (token.getJti() == null && token.getToken() == null) {
+            return;
+        }
+        Instant expiresAt = token.getExpiresAt() != null ? token.getExpiresAt() : legacyExpiration();
+        revokedTokens.put(keyOf(token.getJti(), token.getToken()), expiresAt);
+    }
+
+    public void revokeAll(Collection<Token> tokens) {
+        tokens.forEach(this::revoke);
+    }
+
+    public long size() {
+        revokedTokens.cleanUp();
+        return revokedTokens.estimatedSize();
+    }
+
+    private Instant legacyExpiration() {
+        long longestLifetime = Math.max(secretPropertiesReader.readJwtExpiration(),
+                secretPropertiesReader.readRefreshExpiration());
+        return Instant.now().plusMillis(longestLifetime);
+    }
+
+    private static String keyOf(String tokenId, String token) {
+        return tokenId != null ? tokenId : token;
+    }
+
+    private static long timeToExpiration(Instant expiresAt) {
+        return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+    }
+}
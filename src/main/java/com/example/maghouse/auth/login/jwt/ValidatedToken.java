@@ -0,0 +1,101 @@
+package com.example.maghouse.auth.login.jwt;
+
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.user.User;
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A token whose signature has been verified, with the claims needed for authentication
+ * read out once. Instances are immutable and shared between requests carrying the same token.
+ */
+@Getter
+@ToString(exclude = "claims")
+public final class ValidatedToken {
+
+    public static final String USER_ID_CLAIM = "uid";
+
+    private final String tokenId;
+    private final String subject;
+    private final Long userId;
+    private final Role role;
+    private final List<String> roles;
+    private final Instant expiration;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Claims claims;
+
+    public ValidatedToken(Claims claims) {
+        this.tokenId = claims.getId();
+        this.subject = claims.getSubject();
+        List<?> roleClaim = claims.get("roles", List.class);
+        this.roles = roleClaim == null ? List.of() : roleClaim.stream()
+                .map(String::valueOf)
+                .toList();
+        Number userIdClaim = claims.get(USER_ID_CLAIM, Number.class);
+        this.userId = userIdClaim == null ? null : userIdClaim.longValue();
+        this.role = roleOf(roles);
+        this.expiration = claims.getExpiration() == null ? Instant.EPOCH : claims.getExpiration().toInstant();
+        this.claims = claims;
+    }
+
+    /**
+     * The user the token was issued for, built from the claims alone. Empty for tokens
+     * issued before the user id claim existed, whose user has to be loaded instead.
+     */
+    public Optional<User> toUser() {
+        if (userId == null || role == null) {
+            return Optional.empty();
+        }
+        return Optional.of(User.builder()
+                .id(userId)
+                .email(subject)
+                .role(role)
+                .build());
+    }
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiration);
+    }
+
+    /**
+     * Subject matches the user and the token has not expired. Enough for refresh tokens,
+     * which carry no roles.
+     */
+    public boolean isIssuedFor(UserDetails userDetails) {
+        return subject != null && subject.equals(userDetails.getUsername()) && !isExpired();
+    }
+
+    /**
+     * Issued for the user and still granting every authority the user currently has.
+     */
+    public boolean isValidFor(UserDetails userDetails) {
+        if (!isIssuedFor(userDetails)) {
+            return false;
+        }
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            if (!roles.contains(authority.getAuthority())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Role roleOf(List<String> roles) {
+        for (String authority : roles) {
+            Role role = Role.fromAuthority(authority);
+            if (role != null) {
+                return role;
+            }
+        }
+        return null;
+    }
+}
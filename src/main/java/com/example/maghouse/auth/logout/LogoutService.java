@@ -1,5 +1,7 @@
 package com.example.maghouse.auth.logout;
 
+import com.example.maghouse.auth.login.jwt.JwtService;
+import com.example.maghouse.auth.login.jwt.TokenDenylist;
 import com.example.maghouse.auth.registration.token.TokenRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -9,11 +11,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+
 @Service
 @RequiredArgsConstructor
 public class LogoutService implements LogoutHandler {
 
     private final TokenRepository tokenRepository;
+    private final TokenDenylist tokenDenylist;
+    private final JwtService jwtService;
+
     @Override
     public void logout(HttpServletRequest request,
                        HttpServletResponse response,
@@ -23,11 +30,13 @@ public class LogoutService implements LogoutHandler {
             return;
         }
         final String jwt = authHeader.substring(7);
+        jwtService.validate(jwt).ifPresent(validatedToken -> tokenDenylist.revoke(validatedToken, jwt));
         var storedToken = tokenRepository.findByToken(jwt)
                 .orElse(null);
         if (storedToken != null) {
             storedToken.setExpired(true);
             storedToken.setRevoked(true);
+            storedToken.setRevokedAt(Instant.now());
             tokenRepository.save(storedToken);
             SecurityContextHolder.clearContext();
         }
@@ -1,14 +1,17 @@
 package com.example.maghouse.auth.registration.role;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-@RequiredArgsConstructor
 public enum Role {
     ADMIN(
             Set.of(
@@ -42,15 +45,45 @@ public enum Role {
             )
     );
 
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final Map<String, Role> BY_ROLE_AUTHORITY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(Role::getRoleAuthority, Function.identity()));
+
     @Getter
     private final Set<Permission> permissions;
 
-    public List<SimpleGrantedAuthority> getAuthorities() {
-        var authorities = getPermissions()
-                .stream()
-                .map(permission -> new SimpleGrantedAuthority(permission.getPermission()))
-                .collect(Collectors.toList());
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + this.name()));
-        return authorities;
+    /**
+     * Built once per role, as they are read on every authenticated request.
+     */
+    @Getter
+    private final List<SimpleGrantedAuthority> authorities;
+
+    @Getter
+    private final List<String> authorityNames;
+
+    @Getter
+    private final String roleAuthority;
+
+    @Getter
+    private final String tag;
+
+    Role(Set<Permission> permissions) {
+        this.permissions = permissions;
+        this.roleAuthority = ROLE_PREFIX + name();
+        this.authorities = Stream.concat(
+                        permissions.stream().map(permission -> new SimpleGrantedAuthority(permission.getPermission())),
+                        Stream.of(new SimpleGrantedAuthority(roleAuthority)))
+                .toList();
+        this.authorityNames = authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        this.tag = name().toLowerCase();
+    }
+
+    /**
+     * The role granted by a {@code ROLE_*} authority, or null for any other authority.
+     */
+    public static Role fromAuthority(String authority) {
+        return BY_ROLE_AUTHORITY.get(authority);
     }
 }
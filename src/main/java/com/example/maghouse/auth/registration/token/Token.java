@@ -8,23 +8,34 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Entity
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "token")
+@Table(name = "token", indexes = {
+        @Index(name = "ix_token_expires_at", columnList = "expires_at"),
+        @Index(name = "ix_token_user_valid", columnList = "user_Id, expired, revoked"),
+        @Index(name = "ix_token_revoked_at", columnList = "revoked_at")
+})
 public class Token {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_seq")
+    @SequenceGenerator(name = "token_seq", sequenceName = "token_seq", allocationSize = 50)
     private Long id;
-    @Column(unique = true)
+    @Column(unique = true, length = 1024)
     private String token;
+    @Column(length = 36)
+    private String jti;
+    private Instant expiresAt;
     @Enumerated(EnumType.STRING)
     private TokenType tokenType;
     private boolean expired;
     private boolean revoked;
+    private Instant revokedAt;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_Id")
     private User user;
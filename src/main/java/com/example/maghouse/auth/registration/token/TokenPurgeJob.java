@@ -0,0 +1,90 @@
+package com.example.maghouse.auth.registration.token;
+
+import com.example.maghouse.auth.login.jwt.SecretPropertiesReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Deletes expired token rows in bounded batches, each in its own transaction.
+ */
+@Component
+@Slf4j
+public class TokenPurgeJob {
+
+    private final TokenRepository tokenRepository;
+    private final SecretPropertiesReader secretPropertiesReader;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter deletedTokens;
+    private final Timer runTime;
+
+    public TokenPurgeJob(TokenRepository tokenRepository,
+                         SecretPropertiesReader secretPropertiesReader,
+                         MeterRegistry meterRegistry,
+                         @Value("${maghouse.security.token-purge.batch-size:1000}") int batchSize,
+                         @Value("${maghouse.security.token-purge.max-batches:100}") int maxBatches) {
+        if (batchSize <= 0 || maxBatches <= 0) {
+            throw new IllegalArgumentException("Token purge batch size and batch count must be positive!");
+        }
+        this.tokenRepository = tokenRepository;
+        this.secretPropertiesReader = secretPropertiesReader;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.deletedTokens = Counter.builder("maghouse.token.purge.deleted")
+                .description("Expired token rows deleted by the purge job")
+                .register(meterRegistry);
+        this.runTime = Timer.builder("maghouse.token.purge.duration")
+                .description("Duration of a token purge run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${maghouse.security.token-purge.interval:PT15M}",
+            initialDelayString = "${maghouse.security.token-purge.initial-delay:PT5M}")
+    public void purge() {
+        runTime.record(this::purgeExpiredTokens);
+    }
+
+    /**
+     * Deletes rows whose token has expired and returns how many were removed. Rows written
+     * before the expiry was stored are first given the latest expiry their token can have.
+     */
+    public int purgeExpiredTokens() {
+        Instant now = Instant.now();
+        int backfilled = runInBatches(() -> tokenRepository.backfillMissingExpiry(legacyExpiration(now), batchSize));
+        int deleted = runInBatches(() -> tokenRepository.deleteExpiredBatch(now, batchSize));
+        deletedTokens.increment(deleted);
+        if (backfilled > 0 || deleted > 0) {
+            log.info("Token purge deleted {} expired tokens, set expiry on {} older tokens", deleted, backfilled);
+        }
+        return deleted;
+    }
+
+    private int runInBatches(Batch batch) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int affected = batch.run();
+            total += affected;
+            if (affected < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private Instant legacyExpiration(Instant now) {
+        return now.plusMillis(Math.max(secretPropertiesReader.readJwtExpiration(),
+                secretPropertiesReader.readRefreshExpiration()));
+    }
+
+    @FunctionalInterface
+    private interface Batch {
+        int run();
+    }
+}
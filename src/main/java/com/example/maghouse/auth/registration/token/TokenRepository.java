@@ -2,10 +2,13 @@ package com.example.maghouse.auth.registration.token;
 
 import com.example.maghouse.auth.registration.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +21,23 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
     List<Token> findAllValidTokenByUser(@Param("id") Long id);
 
     List<Token> findByUser(User user);
+
+    @Query("select t from Token t where (t.revoked = true or t.expired = true) " +
+            "and (t.expiresAt is null or t.expiresAt > :now)")
+    List<Token> findRevokedTokensValidAfter(@Param("now") Instant now);
+
+    @Query("select t from Token t where t.revokedAt > :since and (t.expiresAt is null or t.expiresAt > :now)")
+    List<Token> findRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM token WHERE id IN " +
+            "(SELECT id FROM token WHERE expires_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE token SET expires_at = :expiresAt WHERE id IN " +
+            "(SELECT id FROM token WHERE expires_at IS NULL LIMIT :limit)", nativeQuery = true)
+    int backfillMissingExpiry(@Param("expiresAt") Instant expiresAt, @Param("limit") int limit);
 }
@@ -29,12 +29,14 @@ public class UserService {
         var user = findByEmail(changeRoleRequest.getEmail());
         user.setRole(changeRoleRequest.getRole());
         userRepository.save(user);
+        jwtService.revokeAllUserTokens(user.getId());
         return new ChangeRoleResponse(changeRoleRequest.getEmail(), changeRoleRequest.getRole());
     }
 
     public User updateUser (Long id, UserRequest userRequest) {
         var user = getUserById(id);
         userRequestToUserMapper.updatedUserFromUserRequest(userRequest, user);
+        jwtService.revokeAllUserTokens(user.getId());
         return userRepository.save(user);
     }
 
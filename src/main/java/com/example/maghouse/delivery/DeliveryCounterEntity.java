@@ -0,0 +1,24 @@
+package com.example.maghouse.delivery;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "delivery_counter")
+public class DeliveryCounterEntity {
+
+    @Id
+    @Column(length = 7)
+    private String period;
+    private long nextValue;
+}
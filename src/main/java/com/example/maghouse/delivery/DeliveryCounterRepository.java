@@ -0,0 +1,25 @@
+package com.example.maghouse.delivery;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DeliveryCounterRepository extends JpaRepository<DeliveryCounterEntity, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO delivery_counter (period, next_value) VALUES (:period, :nextValue) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("period") String period, @Param("nextValue") long nextValue);
+
+    @Modifying
+    @Query("UPDATE DeliveryCounterEntity c SET c.nextValue = c.nextValue + :count WHERE c.period = :period")
+    int advance(@Param("period") String period, @Param("count") long count);
+
+    @Query("SELECT c.nextValue FROM DeliveryCounterEntity c WHERE c.period = :period")
+    Optional<Long> findNextValue(@Param("period") String period);
+}
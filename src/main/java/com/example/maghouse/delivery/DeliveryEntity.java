@@ -8,15 +8,15 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
+import org.hibernate.Hibernate;
 
 import java.sql.Date;
 
 @Entity
-@Data
+@Getter
+@Setter
+@ToString
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -24,13 +24,15 @@ import java.sql.Date;
 public class DeliveryEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "delivery_seq")
+    @SequenceGenerator(name = "delivery_seq", sequenceName = "delivery_seq", allocationSize = 50)
     private Long id;
     @NotBlank(message = "Supplier required!")
     @Size(max = 50)
     private String supplier;
     @Temporal(TemporalType.DATE)
     private Date date;
+    @Column(unique = true)
     private String numberDelivery;
     private String itemName;
     private String itemCode;
@@ -39,14 +41,39 @@ public class DeliveryEntity {
     private DeliveryStatus deliveryStatus;
     @Enumerated(EnumType.STRING)
     private WarehouseLocation warehouseLocation;
+    @Column(name = "site_id")
+    private Integer siteId;
 
     @ManyToOne
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
     private User user;
     @ManyToOne
     @JoinColumn(name = "item_id")
     @JsonBackReference
+    @ToString.Exclude
     private ItemEntity item;
 
+    @PrePersist
+    void resolveSiteId() {
+        if (siteId == null && warehouseLocation != null) {
+            siteId = warehouseLocation.getSiteId();
+        }
+    }
 
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || Hibernate.getClass(this) != Hibernate.getClass(other)) {
+            return false;
+        }
+        return id != null && id.equals(((DeliveryEntity) other).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.maghouse.delivery;
+
+import com.example.maghouse.delivery.status.DeliveryStatus;
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DeliveryFilter {
+    private DeliveryStatus deliveryStatus;
+    private WarehouseLocation warehouseLocation;
+    private Integer siteId;
+    private String supplier;
+    private String itemCode;
+    private LocalDate dateFrom;
+    private LocalDate dateTo;
+}
@@ -1,25 +1,42 @@
 package com.example.maghouse.delivery;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 
+/**
+ * Delivery numbers ("sequence/month/year") taken from a per-month counter row in the caller's transaction.
+ */
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class DeliveryNumberGenerator {
 
-    private final DeliveryRepository deliveryRepository;
-
+    private final DeliveryCounterRepository deliveryCounterRepository;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public String generateDeliveryNumber(){
+        return generateDeliveryNumber(LocalDate.now());
+    }
 
-        LocalDate actualDate = LocalDate.now();
-        int month = actualDate.getMonthValue();
-        int year = actualDate.getYear();
-
-        int deliveryCount = deliveryRepository.countByMonthAndYear(month, year) + 1;
-
-        return deliveryCount  + "/" + month + "/" + year;
+    /**
+     * Numbers are gap-free, so they cannot be handed out in blocks: a rolled-back delivery or
+     * a block left unused would leave a hole. Creates within one month therefore serialize on
+     * the counter row until their transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    String generateDeliveryNumber(LocalDate date) {
+        YearMonth period = YearMonth.from(date);
+        String key = period.toString();
+        if (deliveryCounterRepository.advance(key, 1) == 0) {
+            deliveryCounterRepository.createIfAbsent(key, 1);
+            deliveryCounterRepository.advance(key, 1);
+        }
+        long next = deliveryCounterRepository.findNextValue(key)
+                .orElseThrow(() -> new IllegalStateException("Delivery counter for " + key + " not found!"));
+        return next - 1 + "/" + period.getMonthValue() + "/" + period.getYear();
     }
 }
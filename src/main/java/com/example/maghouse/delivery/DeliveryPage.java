@@ -0,0 +1,19 @@
+package com.example.maghouse.delivery;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a delivery search. Pass {@code nextCursor} as {@code after} to fetch the next
+ * page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeliveryPage {
+    private List<DeliverySummary> deliveries;
+    private Long nextCursor;
+}
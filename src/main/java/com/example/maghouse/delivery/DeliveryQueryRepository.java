@@ -0,0 +1,12 @@
+package com.example.maghouse.delivery;
+
+import java.util.List;
+
+public interface DeliveryQueryRepository {
+
+    /**
+     * Up to {@code limit} deliveries with an id greater than {@code afterId} matching every
+     * filter that is set, in id order, read straight into summaries.
+     */
+    List<DeliverySummary> findSummaries(Long afterId, DeliveryFilter filter, int limit);
+}
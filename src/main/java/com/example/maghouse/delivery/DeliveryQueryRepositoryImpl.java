@@ -0,0 +1,76 @@
+package com.example.maghouse.delivery;
+
+import com.example.maghouse.query.LikePatterns;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class DeliveryQueryRepositoryImpl implements DeliveryQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DeliverySummary> findSummaries(Long afterId, DeliveryFilter filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DeliverySummary> query = cb.createQuery(DeliverySummary.class);
+        Root<DeliveryEntity> delivery = query.from(DeliveryEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(delivery.get("id"), afterId));
+        }
+        if (filter != null) {
+            if (filter.getDeliveryStatus() != null) {
+                predicates.add(cb.equal(delivery.get("deliveryStatus"), filter.getDeliveryStatus()));
+            }
+            Integer siteId = filter.getSiteId() != null || filter.getWarehouseLocation() == null
+                    ? filter.getSiteId()
+                    : Integer.valueOf(filter.getWarehouseLocation().getSiteId());
+            if (siteId != null) {
+                predicates.add(cb.equal(delivery.get("siteId"), siteId));
+            }
+            if (LikePatterns.hasText(filter.getSupplier())) {
+                predicates.add(cb.like(cb.lower(delivery.get("supplier")),
+                        LikePatterns.prefixPattern(filter.getSupplier().toLowerCase(Locale.ROOT)), LikePatterns.ESCAPE));
+            }
+            if (LikePatterns.hasText(filter.getItemCode())) {
+                predicates.add(cb.equal(delivery.get("itemCode"), filter.getItemCode()));
+            }
+            if (filter.getDateFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(delivery.get("date"), Date.valueOf(filter.getDateFrom())));
+            }
+            if (filter.getDateTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(delivery.get("date"), Date.valueOf(filter.getDateTo())));
+            }
+        }
+
+        query.select(cb.construct(DeliverySummary.class,
+                        delivery.get("id"),
+                        delivery.get("supplier"),
+                        delivery.get("date"),
+                        delivery.get("numberDelivery"),
+                        delivery.get("itemName"),
+                        delivery.get("itemCode"),
+                        delivery.get("quantity"),
+                        delivery.get("deliveryStatus"),
+                        delivery.get("warehouseLocation"),
+                        delivery.get("siteId"),
+                        delivery.get("user").get("id"),
+                        delivery.get("item").get("id")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(delivery.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,28 +1,56 @@
 package com.example.maghouse.delivery;
 
 import com.example.maghouse.delivery.status.DeliveryStatus;
-import com.example.maghouse.warehouse.location.WarehouseLocation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface DeliveryRepository extends JpaRepository<DeliveryEntity, Long> {
-
-    @Query("SELECT COUNT(d) FROM DeliveryEntity d WHERE EXTRACT(MONTH FROM d.date) = :month AND EXTRACT(YEAR FROM d.date) = :year")
-    int countByMonthAndYear(@Param("month") int month, @Param("year") int year);
+public interface DeliveryRepository extends JpaRepository<DeliveryEntity, Long>, DeliveryQueryRepository {
 
     List<DeliveryEntity> findByDeliveryStatus(DeliveryStatus deliveryStatus);
 
+    /**
+     * Moves the delivery to the given status unless it has already been delivered, so a
+     * receipt is applied exactly once even when the same delivery is received concurrently.
+     * Returns 0 when the delivery does not exist or is already delivered.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DeliveryEntity d SET d.deliveryStatus = :status WHERE d.id = :id " +
+            "AND (d.deliveryStatus IS NULL OR d.deliveryStatus <> com.example.maghouse.delivery.status.DeliveryStatus.DELIVERED)")
+    int updateStatusUnlessDelivered(@Param("id") Long id, @Param("status") DeliveryStatus status);
+
     Optional<DeliveryEntity> findByNumberDelivery(String numberDelivery);
 
     List<DeliveryEntity> findBySupplierContainingIgnoreCase(String supplier);
 
-    List<DeliveryEntity> findByWarehouseLocation(WarehouseLocation warehouseLocation);
+    @Query("SELECT new com.example.maghouse.delivery.SupplierMatch(d.supplier, COUNT(d)) " +
+            "FROM DeliveryEntity d GROUP BY d.supplier")
+    List<SupplierMatch> countDeliveriesBySupplier();
+
+    List<DeliveryEntity> findBySiteId(Integer siteId);
 
     List<DeliveryEntity> findByItemCode(String itemCode);
+
+    /**
+     * Every delivery in id order, read through a forward-only cursor. Has to be consumed and
+     * closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.maghouse.delivery.DeliverySummary(d.id, d.supplier, d.date, d.numberDelivery, " +
+            "d.itemName, d.itemCode, d.quantity, d.deliveryStatus, d.warehouseLocation, d.siteId, u.id, i.id) " +
+            "FROM DeliveryEntity d LEFT JOIN d.user u LEFT JOIN d.item i ORDER BY d.id")
+    Stream<DeliverySummary> streamAllSummaries();
 }
@@ -22,5 +22,6 @@ public class DeliveryResponse {
     private int quantity;
     private DeliveryStatus deliveryStatus;
     private WarehouseLocation warehouseLocation;
+    private Integer siteId;
     private long userId;
 }
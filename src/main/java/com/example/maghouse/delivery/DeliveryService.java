@@ -4,18 +4,25 @@ import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.auth.registration.user.UserRepository;
 import com.example.maghouse.delivery.status.DeliveryStatus;
 import com.example.maghouse.delivery.status.DeliveryStatusRequest;
-import com.example.maghouse.item.ItemEntity;
+import com.example.maghouse.export.NdjsonExporter;
+import com.example.maghouse.item.ItemCache;
 import com.example.maghouse.item.ItemRepository;
+import com.example.maghouse.item.ItemSummary;
 import com.example.maghouse.mapper.DeliveryResponseToDeliveryMapper;
-import com.example.maghouse.warehouse.WarehouseService;
+import com.example.maghouse.stock.StockLedger;
 import com.example.maghouse.warehouse.location.WarehouseLocation;
+import com.example.maghouse.warehouse.site.WarehouseSite;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -26,12 +33,41 @@ public class DeliveryService {
     private final DeliveryResponseToDeliveryMapper deliveryResponseToDeliveryMapper;
     private final DeliveryRepository deliveryRepository;
     private final ItemRepository itemRepository;
-    private final WarehouseService warehouseService;
+    private final ItemCache itemCache;
+    private final NdjsonExporter ndjsonExporter;
+    private final SupplierIndex supplierIndex;
+    private final StockLedger stockLedger;
+    private final WarehouseSiteRegistry warehouseSiteRegistry;
+    public static final int MAX_SUPPLIER_MATCHES = 50;
+    public static final int MAX_PAGE_SIZE = 500;
 
     public List<DeliveryEntity> getAllDeliveries() {
         return deliveryRepository.findAll();
     }
 
+    @Transactional
+    public void exportDeliveries(OutputStream outputStream) throws IOException {
+        try (Stream<DeliverySummary> deliveries = deliveryRepository.streamAllSummaries()) {
+            ndjsonExporter.write(deliveries, outputStream);
+        }
+    }
+
+    public DeliveryPage searchDeliveries(Long after, int size, DeliveryFilter filter) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + "!");
+        }
+        if (filter != null && filter.getDateFrom() != null && filter.getDateTo() != null
+                && filter.getDateFrom().isAfter(filter.getDateTo())) {
+            throw new IllegalArgumentException("Date from cannot be after date to!");
+        }
+        List<DeliverySummary> deliveries = deliveryRepository.findSummaries(after, filter, size + 1);
+        if (deliveries.size() <= size) {
+            return new DeliveryPage(deliveries, null);
+        }
+        List<DeliverySummary> page = deliveries.subList(0, size);
+        return new DeliveryPage(List.copyOf(page), page.get(size - 1).getId());
+    }
+
     public List<DeliveryEntity> getDeliveriesByStatus(DeliveryStatus status) {
         return deliveryRepository.findByDeliveryStatus(status);
     }
@@ -44,8 +80,22 @@ public class DeliveryService {
         return deliveryRepository.findBySupplierContainingIgnoreCase(supplierName);
     }
 
+    public List<SupplierMatch> searchSuppliers(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUPPLIER_MATCHES) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUPPLIER_MATCHES + "!");
+        }
+        return supplierIndex.search(query, limit);
+    }
+
     public List<DeliveryEntity> getDeliveriesByLocation(WarehouseLocation warehouseLocation) {
-        return deliveryRepository.findByWarehouseLocation(warehouseLocation);
+        if (warehouseLocation == null) {
+            throw new IllegalArgumentException("Unknown location!");
+        }
+        return getDeliveriesBySite(warehouseSiteRegistry.siteOf(warehouseLocation).getId());
+    }
+
+    public List<DeliveryEntity> getDeliveriesBySite(int siteId) {
+        return deliveryRepository.findBySiteId(siteId);
     }
 
     public List<DeliveryEntity> getDeliveriesByItemCode(String itemCode) {
@@ -67,34 +117,47 @@ public class DeliveryService {
                 deliveryRequest, numberDelivery, data, user.getId());
         var delivery = deliveryResponseToDeliveryMapper.mapToDelivery(deliveryResponse);
         delivery.setUser(user);
-        WarehouseLocation warehouseLocation = determineWarehouseLocationFromItemLocation(deliveryRequest.getItemCode());
-        delivery.setWarehouseLocation(warehouseLocation);
+        WarehouseSite site = determineSiteFromItemLocation(deliveryRequest.getItemCode());
+        delivery.setSiteId(site.getId());
+        delivery.setWarehouseLocation(site.getWarehouseLocation());
 
-        return deliveryRepository.save(delivery);
+        var saved = deliveryRepository.save(delivery);
+        supplierIndex.add(delivery.getSupplier());
+        return saved;
     }
 
+    @Transactional
     public DeliveryEntity updateDeliveryStatus(DeliveryStatusRequest deliveryStatusRequest, Long id) {
+        DeliveryStatus status = deliveryStatusRequest.getDeliveryStatus();
+        if (status == null) {
+            throw new IllegalArgumentException("Delivery status cannot be null!");
+        }
+        boolean updated = deliveryRepository.updateStatusUnlessDelivered(id, status) == 1;
         var delivery = deliveryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Delivery not found!"));
-        delivery.setDeliveryStatus(deliveryStatusRequest.getDeliveryStatus());
-        if (deliveryStatusRequest.getDeliveryStatus() == DeliveryStatus.DELIVERED) {
-            itemRepository.findByItemCode(delivery.getItemCode()).ifPresent(item -> {
-                item.setQuantity(item.getQuantity() + delivery.getQuantity());
-                itemRepository.save(item);
-            });
+        if (!updated) {
+            if (status != DeliveryStatus.DELIVERED) {
+                throw new IllegalArgumentException("Delivery has already been delivered!");
+            }
+            return delivery;
+        }
+        if (status == DeliveryStatus.DELIVERED) {
+            Long userId = delivery.getUser() == null ? null : delivery.getUser().getId();
+            itemCache.findByItemCode(delivery.getItemCode()).ifPresent(item -> stockLedger.recordReceipt(
+                    item.getId(), delivery.getQuantity(), delivery.getNumberDelivery(), userId));
         }
-        return deliveryRepository.save(delivery);
+        return delivery;
     }
 
-    private WarehouseLocation determineWarehouseLocationFromItemLocation(String itemCode) {
-        ItemEntity item = itemRepository.findByItemCode(itemCode)
+    private WarehouseSite determineSiteFromItemLocation(String itemCode) {
+        ItemSummary item = itemRepository.findSummaryByItemCode(itemCode)
                 .orElseThrow(() -> new IllegalArgumentException("Item with code " + itemCode + " not found!"));
 
         String locationCode = item.getLocationCode();
         if (locationCode == null || locationCode.isEmpty()) {
             throw new IllegalArgumentException("Item location code not found!");
         }
-        String locationPrefix = locationCode.substring(0, 1).toUpperCase();
-        return warehouseService.getWarehouseLocationByPrefix(locationPrefix);
+        return warehouseSiteRegistry.matchLocationCode(locationCode)
+                .orElseThrow(() -> new IllegalArgumentException("Unknow location prefix: " + locationCode));
     }
 }
@@ -0,0 +1,40 @@
+package com.example.maghouse.delivery;
+
+import com.example.maghouse.delivery.status.DeliveryStatus;
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DeliverySummary {
+    private Long id;
+    private String supplier;
+    private LocalDate date;
+    private String numberDelivery;
+    private String itemName;
+    private String itemCode;
+    private int quantity;
+    private DeliveryStatus deliveryStatus;
+    private WarehouseLocation warehouseLocation;
+    private Integer siteId;
+    private Long userId;
+    private Long itemId;
+
+    /**
+     * Used by query projections, which read the date column as {@link Date}.
+     */
+    public DeliverySummary(Long id, String supplier, Date date, String numberDelivery, String itemName,
+                           String itemCode, int quantity, DeliveryStatus deliveryStatus,
+                           WarehouseLocation warehouseLocation, Integer siteId, Long userId, Long itemId) {
+        this(id, supplier, date == null ? null : date.toLocalDate(), numberDelivery, itemName, itemCode,
+                quantity, deliveryStatus, warehouseLocation, siteId, userId, itemId);
+    }
+}
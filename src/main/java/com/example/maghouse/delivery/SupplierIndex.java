@@ -0,0 +1,192 @@
+package com.example.maghouse.delivery;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory trigram index over the distinct supplier names, used for type-ahead suggestions.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SupplierIndex {
+
+    private static final int GRAM = 3;
+
+    private final DeliveryRepository deliveryRepository;
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${maghouse.delivery.supplier-index.refresh-interval:PT5M}",
+            initialDelayString = "${maghouse.delivery.supplier-index.refresh-interval:PT5M}")
+    public void load() {
+        List<SupplierMatch> suppliers = deliveryRepository.countDeliveriesBySupplier();
+        synchronized (this) {
+            snapshot = Snapshot.build(suppliers);
+        }
+        log.debug("Indexed {} suppliers", suppliers.size());
+    }
+
+    /**
+     * Counts a delivery for the supplier once the surrounding transaction commits.
+     */
+    public void add(String supplier) {
+        if (supplier == null || supplier.isBlank()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index(supplier);
+                }
+            });
+        } else {
+            index(supplier);
+        }
+    }
+
+    private void index(String supplier) {
+        Entry entry = snapshot.bySupplier.get(supplier);
+        if (entry != null) {
+            entry.deliveries.incrementAndGet();
+            return;
+        }
+        synchronized (this) {
+            entry = snapshot.bySupplier.get(supplier);
+            if (entry != null) {
+                entry.deliveries.incrementAndGet();
+                return;
+            }
+            List<SupplierMatch> suppliers = new ArrayList<>(snapshot.entries.size() + 1);
+            snapshot.entries.forEach(existing ->
+                    suppliers.add(new SupplierMatch(existing.supplier, existing.deliveries.get())));
+            suppliers.add(new SupplierMatch(supplier, 1));
+            snapshot = Snapshot.build(suppliers);
+        }
+    }
+
+    /**
+     * Up to {@code limit} suppliers whose name contains the query, ignoring case. Names
+     * starting with the query come first, then the ones with the most deliveries.
+     */
+    public List<SupplierMatch> search(String query, int limit) {
+        return snapshot.containing(normalize(query)).stream()
+                .sorted(ranking(normalize(query)))
+                .limit(limit)
+                .map(entry -> new SupplierMatch(entry.supplier, entry.deliveries.get()))
+                .toList();
+    }
+
+    private static Comparator<Entry> ranking(String query) {
+        return Comparator.<Entry, Boolean>comparing(entry -> !entry.normalized.startsWith(query))
+                .thenComparing(entry -> entry.deliveries.get(), Comparator.reverseOrder())
+                .thenComparing(entry -> entry.supplier);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record Entry(String supplier, String normalized, AtomicLong deliveries) {
+    }
+
+    private record Snapshot(List<Entry> entries, Map<String, Entry> bySupplier, Map<String, int[]> postings) {
+
+        static Snapshot build(List<SupplierMatch> suppliers) {
+            List<Entry> entries = new ArrayList<>(suppliers.size());
+            Map<String, Entry> bySupplier = new HashMap<>();
+            Map<String, List<Integer>> grams = new HashMap<>();
+            for (SupplierMatch match : suppliers) {
+                if (match.getSupplier() == null || bySupplier.containsKey(match.getSupplier())) {
+                    continue;
+                }
+                Entry entry = new Entry(match.getSupplier(), normalize(match.getSupplier()),
+                        new AtomicLong(match.getDeliveries()));
+                int position = entries.size();
+                entries.add(entry);
+                bySupplier.put(entry.supplier, entry);
+                for (String gram : trigrams(entry.normalized)) {
+                    grams.computeIfAbsent(gram, key -> new ArrayList<>()).add(position);
+                }
+            }
+            Map<String, int[]> postings = new HashMap<>(grams.size() * 2);
+            grams.forEach((gram, positions) ->
+                    postings.put(gram, positions.stream().mapToInt(Integer::intValue).toArray()));
+            return new Snapshot(List.copyOf(entries), Map.copyOf(bySupplier), Map.copyOf(postings));
+        }
+
+        List<Entry> containing(String query) {
+            if (query.isEmpty()) {
+                return List.of();
+            }
+            if (query.length() < GRAM) {
+                return entries.stream()
+                        .filter(entry -> entry.normalized.contains(query))
+                        .toList();
+            }
+            int[] candidates = null;
+            for (String gram : trigrams(query)) {
+                int[] positions = postings.get(gram);
+                if (positions == null) {
+                    return List.of();
+                }
+                candidates = candidates == null ? positions : intersect(candidates, positions);
+                if (candidates.length == 0) {
+                    return List.of();
+                }
+            }
+            List<Entry> matches = new ArrayList<>(candidates.length);
+            for (int position : candidates) {
+                Entry entry = entries.get(position);
+                if (entry.normalized.contains(query)) {
+                    matches.add(entry);
+                }
+            }
+            return matches;
+        }
+
+        private static int[] intersect(int[] left, int[] right) {
+            int[] result = new int[Math.min(left.length, right.length)];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < left.length && j < right.length) {
+                if (left[i] == right[j]) {
+                    result[size++] = left[i];
+                    i++;
+                    j++;
+                } else if (left[i] < right[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+    }
+}
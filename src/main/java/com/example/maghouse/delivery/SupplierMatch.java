@@ -0,0 +1,13 @@
+package com.example.maghouse.delivery;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SupplierMatch {
+    private String supplier;
+    private long deliveries;
+}
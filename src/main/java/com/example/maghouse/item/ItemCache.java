@@ -0,0 +1,64 @@
+package com.example.maghouse.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Short-lived read-through cache of item snapshots for the scanner lookups; not for write paths.
+ */
+@Component
+public class ItemCache {
+
+    private final ItemRepository itemRepository;
+    private final Cache<String, ItemSummary> itemsByCode;
+
+    public ItemCache(ItemRepository itemRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${maghouse.item.cache.max-size:10000}") long maxSize,
+                     @Value("${maghouse.item.cache.ttl:PT10S}") Duration ttl) {
+        this.itemRepository = itemRepository;
+        this.itemsByCode = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, itemsByCode, "itemsByCode");
+    }
+
+    public Optional<ItemSummary> findByItemCode(String itemCode) {
+        if (itemCode == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(itemsByCode.get(itemCode,
+                code -> itemRepository.findSummaryByItemCode(code).orElse(null)));
+    }
+
+    public void evict(String itemCode) {
+        if (itemCode == null) {
+            return;
+        }
+        itemsByCode.invalidate(itemCode);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    itemsByCode.invalidate(itemCode);
+                }
+            });
+        }
+    }
+
+    public void evictAll(Collection<ItemEntity> items) {
+        items.forEach(item -> evict(item.getItemCode()));
+    }
+}
@@ -1,24 +1,93 @@
 package com.example.maghouse.item;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Item codes ("NNNN-NN-NNN-NNNN") are a keyed Feistel permutation of numbers reserved in blocks from item_code_seq.
+ */
 @Service
+@RequiredArgsConstructor
 public class ItemCodeGenerator {
 
-    private static final Random RANDOM = new Random();
+    static final int BLOCK_SIZE = 1000;
+    static final long CODE_SPACE = 10_000_000_000_000L;
+    private static final int HALF_BITS = 22;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int[] ROUND_KEYS = {0x5bd1e995, 0x27d4eb2f, 0x165667b1, 0x61c88647};
+
+    private final ItemRepository itemRepository;
+    private volatile Block block = new Block(0, 0);
 
     public String generateItemCode() {
-        int firstPart = generateRandomNumber(1000, 9999);
-        int secondPart = generateRandomNumber(10, 99);
-        int thirdPart = generateRandomNumber(100, 999);
-        int fourthPart = generateRandomNumber(1000, 9999);
+        return format(permute(nextSequence()));
+    }
+
+    long nextSequence() {
+        while (true) {
+            Block current = block;
+            long value = current.cursor.getAndIncrement();
+            if (value < current.end) {
+                return value;
+            }
+            long start = itemRepository.nextItemCodeBlock();
+            block = new Block(start, start + BLOCK_SIZE);
+        }
+    }
+
+    static long permute(long sequence) {
+        if (sequence < 0 || sequence >= CODE_SPACE) {
+            throw new IllegalStateException("Item code space exhausted!");
+        }
+        long value = sequence;
+        do {
+            value = feistel(value);
+        } while (value >= CODE_SPACE);
+        return value;
+    }
 
-        return String.format("%04d-%02d-%03d-%04d", firstPart, secondPart, thirdPart, fourthPart);
+    static String format(long code) {
+        char[] chars = new char[16];
+        long remaining = code;
+        for (int i = chars.length - 1; i >= 0; i--) {
+            if (i == 4 || i == 7 || i == 11) {
+                chars[i] = '-';
+            } else {
+                chars[i] = (char) ('0' + remaining % 10);
+                remaining /= 10;
+            }
+        }
+        return new String(chars);
     }
 
-    private int generateRandomNumber(int min, int max){
-        return RANDOM.nextInt((max - min) + 1) + min;
+    private static long feistel(long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int key : ROUND_KEYS) {
+            long next = left ^ round(right, key);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static long round(long half, int key) {
+        int x = (int) half * 0x9e3779b1 + key;
+        x ^= x >>> 15;
+        x *= 0x85ebca6b;
+        x ^= x >>> 13;
+        return x & HALF_MASK;
+    }
+
+    private static final class Block {
+        private final AtomicLong cursor;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
     }
 }
@@ -3,15 +3,15 @@ package com.example.maghouse.item;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.delivery.DeliveryEntity;
 import com.example.maghouse.warehouse.WarehouseEntity;
+import com.example.maghouse.warehouse.location.LocationCode;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
+import org.hibernate.Hibernate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,36 +19,65 @@ import java.util.List;
 
 @Entity
 @Builder
-@Data
-@Table(name = "items")
+@Getter
+@Setter
+@ToString
+@EntityListeners(ItemLocationListener.class)
+@Table(name = "items", indexes = {
+        @Index(name = "ix_items_location", columnList = "location_key")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 public class ItemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
     @NotBlank(message = "Name required!")
     @Size(max = 50)
     private String name;
     @Size(max = 50)
     @NotBlank(message = "Code required!")
+    @Column(unique = true)
     private String itemCode;
     @NotNull(message = "Quantity required!")
     private int quantity;
     @Size(max = 50)
     private String locationCode;
+    @Column(name = "location_key")
+    @JsonIgnore
+    private LocationCode location;
 
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
     private User user;
 
     @ManyToOne
     @JoinColumn(name = "warehouse_id")
+    @ToString.Exclude
     private WarehouseEntity warehouseEntity;
 
     @OneToMany(mappedBy = "item")
     @JsonManagedReference
+    @ToString.Exclude
+    @Builder.Default
     private List<DeliveryEntity> deliveries = new ArrayList<>();
 
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || Hibernate.getClass(this) != Hibernate.getClass(other)) {
+            return false;
+        }
+        return id != null && id.equals(((ItemEntity) other).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
@@ -0,0 +1,16 @@
+package com.example.maghouse.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemFilter {
+    private String namePrefix;
+    private String locationPrefix;
+    private Long warehouseId;
+}
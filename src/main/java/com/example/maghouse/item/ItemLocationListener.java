@@ -0,0 +1,25 @@
+package com.example.maghouse.item;
+
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the packed location key of an item in step with its location code on every write.
+ * The registry is looked up on first use because Hibernate builds listeners before its repositories exist.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemLocationListener {
+
+    private final ObjectProvider<WarehouseSiteRegistry> warehouseSiteRegistry;
+
+    @PrePersist
+    @PreUpdate
+    void parseLocationCode(ItemEntity item) {
+        item.setLocation(warehouseSiteRegistry.getObject().getLocationCodeFormat().parse(item.getLocationCode()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.maghouse.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the item listing. Pass {@code nextCursor} as {@code after} to fetch the next
+ * page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemPage {
+    private List<ItemSummary> items;
+    private Long nextCursor;
+}
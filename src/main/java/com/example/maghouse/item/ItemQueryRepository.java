@@ -0,0 +1,13 @@
+package com.example.maghouse.item;
+
+import java.util.List;
+
+public interface ItemQueryRepository {
+
+    /**
+     * Up to {@code limit} items with an id greater than {@code afterId}, in id order, read
+     * straight into summaries without loading the entities. Only the filters that are set
+     * end up in the query.
+     */
+    List<ItemSummary> findSummaries(Long afterId, ItemFilter filter, int limit);
+}
@@ -0,0 +1,75 @@
+package com.example.maghouse.item;
+
+import com.example.maghouse.query.LikePatterns;
+import com.example.maghouse.warehouse.location.LocationCode;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ItemQueryRepositoryImpl implements ItemQueryRepository {
+
+    private final WarehouseSiteRegistry warehouseSiteRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ItemSummary> findSummaries(Long afterId, ItemFilter filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ItemSummary> query = cb.createQuery(ItemSummary.class);
+        Root<ItemEntity> item = query.from(ItemEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(item.get("id"), afterId));
+        }
+        if (filter != null) {
+            if (LikePatterns.hasText(filter.getNamePrefix())) {
+                predicates.add(cb.like(item.get("name"), LikePatterns.prefixPattern(filter.getNamePrefix()),
+                        LikePatterns.ESCAPE));
+            }
+            if (LikePatterns.hasText(filter.getLocationPrefix())) {
+                predicates.add(locationPrefix(cb, item, filter.getLocationPrefix()));
+            }
+            if (filter.getWarehouseId() != null) {
+                predicates.add(cb.equal(item.get("warehouseEntity").get("id"), filter.getWarehouseId()));
+            }
+        }
+
+        query.select(cb.construct(ItemSummary.class,
+                        item.get("id"),
+                        item.get("name"),
+                        item.get("itemCode"),
+                        item.get("quantity"),
+                        item.get("locationCode"),
+                        item.get("user").get("id"),
+                        item.get("warehouseEntity").get("id")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(item.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Site and space type prefixes ("W", "WS", "S") are a range of packed location keys and
+     * use ix_items_location; anything longer falls back to a LIKE on the code.
+     */
+    private Predicate locationPrefix(CriteriaBuilder cb, Root<ItemEntity> item, String prefix) {
+        LocationCode.Range range = warehouseSiteRegistry.getLocationCodeFormat().rangeOf(prefix);
+        if (range == null) {
+            return cb.like(item.get("locationCode"), LikePatterns.prefixPattern(prefix), LikePatterns.ESCAPE);
+        }
+        return cb.between(item.get("location"), range.first(), range.last());
+    }
+}
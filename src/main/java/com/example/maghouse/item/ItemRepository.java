@@ -1,25 +1,72 @@
 package com.example.maghouse.item;
 
+import com.example.maghouse.warehouse.location.LocationCode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ItemRepository extends JpaRepository<ItemEntity, Long> {
+public interface ItemRepository extends JpaRepository<ItemEntity, Long>, ItemQueryRepository {
     Optional<ItemEntity> findByItemCode(String itemCode);
 
-    @Query("SELECT i FROM ItemEntity i WHERE i.locationCode LIKE CONCAT(:prefix, '%')")
-    List<ItemEntity> findByItemLocationStartingWith(@Param("prefix") String prefix);
+    @Query("SELECT new com.example.maghouse.item.ItemSummary(i.id, i.name, i.itemCode, i.quantity, " +
+            "i.locationCode, u.id, w.id) FROM ItemEntity i LEFT JOIN i.user u LEFT JOIN i.warehouseEntity w " +
+            "WHERE i.itemCode = :itemCode")
+    Optional<ItemSummary> findSummaryByItemCode(@Param("itemCode") String itemCode);
 
-    @Query("SELECT i.locationCode FROM ItemEntity i " +
-            "WHERE i.locationCode LIKE CONCAT(:prefix, '%') AND i.locationCode IS NOT NULL")
-    List<String> findUsedLocationCodes(@Param("prefix") String prefix);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ItemEntity i SET i.quantity = i.quantity + :quantity WHERE i.id = :id")
+    int incrementQuantityById(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("SELECT i.quantity FROM ItemEntity i WHERE i.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") Long id);
+
+    @Query("SELECT i.itemCode FROM ItemEntity i WHERE i.id IN :ids")
+    List<String> findItemCodesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i FROM ItemEntity i WHERE i.location BETWEEN :first AND :last ORDER BY i.location")
+    List<ItemEntity> findByLocationBetween(@Param("first") LocationCode first, @Param("last") LocationCode last);
+
+    default List<ItemEntity> findByLocationSite(int siteId) {
+        LocationCode.Range range = LocationCode.rangeOf(siteId);
+        return findByLocationBetween(range.first(), range.last());
+    }
+
+    @Transactional
+    @Query(value = "SELECT nextval('item_code_seq')", nativeQuery = true)
+    long nextItemCodeBlock();
+
+    @Query("SELECT i.locationCode FROM ItemEntity i WHERE i.locationCode IS NOT NULL")
+    List<String> findAllUsedLocationCodes();
 
     @Query("SELECT i FROM ItemEntity i WHERE i.id = :id AND i.locationCode IS NULL ")
     Optional<ItemEntity> findUnassignedItem(@Param("id") Long id);
 
+    @Query("SELECT i FROM ItemEntity i WHERE i.id IN :ids AND i.locationCode IS NULL")
+    List<ItemEntity> findUnassignedItems(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Every item in id order, read through a forward-only cursor. Has to be consumed and
+     * closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.maghouse.item.ItemSummary(i.id, i.name, i.itemCode, i.quantity, " +
+            "i.locationCode, u.id, w.id) FROM ItemEntity i LEFT JOIN i.user u LEFT JOIN i.warehouseEntity w " +
+            "ORDER BY i.id")
+    Stream<ItemSummary> streamAllSummaries();
+
 }
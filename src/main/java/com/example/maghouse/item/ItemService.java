@@ -1,15 +1,21 @@
 package com.example.maghouse.item;
 
+import com.example.maghouse.export.NdjsonExporter;
 import com.example.maghouse.mapper.ItemResponseToItemMapper;
+import com.example.maghouse.stock.StockLedger;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.auth.registration.user.UserRepository;
+import com.example.maghouse.warehouse.slot.LocationSlotAllocator;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -20,14 +26,35 @@ public class ItemService {
     private final ItemRepository itemRepository;
     private final ItemResponseToItemMapper itemResponseToItemMapper;
     private final ItemCodeGenerator itemCodeGenerator;
+    private final LocationSlotAllocator locationSlotAllocator;
+    private final NdjsonExporter ndjsonExporter;
+    private final ItemCache itemCache;
+    private final StockLedger stockLedger;
     private static final ItemResponse itemResponse = new ItemResponse();
+    public static final int MAX_PAGE_SIZE = 500;
 
-    public List<ItemEntity> getAllItems() {
-        return itemRepository.findAll();
+    public ItemPage listItems(Long after, int size, ItemFilter filter) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + "!");
+        }
+        List<ItemSummary> items = itemRepository.findSummaries(after, filter, size + 1);
+        if (items.size() <= size) {
+            return new ItemPage(items, null);
+        }
+        List<ItemSummary> page = items.subList(0, size);
+        return new ItemPage(List.copyOf(page), page.get(size - 1).getId());
     }
 
-    public ItemEntity getItemByItemCode(String itemCode ) {
-        return itemRepository.findByItemCode(itemCode).
+    @Transactional
+    public void exportItems(OutputStream outputStream) throws IOException {
+        try (Stream<ItemSummary> items = itemRepository.streamAllSummaries()) {
+            long exported = ndjsonExporter.write(items, outputStream);
+            log.info("Exported {} items", exported);
+        }
+    }
+
+    public ItemSummary getItemByItemCode(String itemCode ) {
+        return itemCache.findByItemCode(itemCode).
                 orElseThrow(() -> new NoSuchElementException("Item not found!"));
     }
 
@@ -41,19 +68,40 @@ public class ItemService {
         ItemResponse itemResponse = itemResponseToItemMapper.mapToItemResponseFromRequest(itemRequest, code, null, user.getId() );
         ItemEntity item = itemResponseToItemMapper.mapToEntityFromResponse(itemResponse);
         item.setUser(user);
-        return itemRepository.save(item);
+        ItemEntity saved = itemRepository.save(item);
+        stockLedger.recordOpening(saved.getId(), saved.getQuantity(), user.getId());
+        return saved;
     }
 
-    public ItemEntity updateItemQuantity(Long itemId, ItemRequest itemRequest, User user) {
+    /**
+     * Records the requested quantity as a stock count in the ledger. The next stock projection
+     * run turns it into an adjustment against the quantity projected so far and updates the
+     * item row, so the row is never locked here.
+     */
+    @Transactional
+    public ItemSummary updateItemQuantity(Long itemId, ItemRequest itemRequest, User user) {
         ItemEntity item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new IllegalArgumentException("Item not found"));
 
-        item.setQuantity(itemRequest.getQuantity());
-        item.setUser(user);
-        return itemRepository.save(item);
+        stockLedger.recordCount(itemId, itemRequest.getQuantity(), user == null ? null : user.getId());
+        return ItemSummary.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .itemCode(item.getItemCode())
+                .quantity(itemRequest.getQuantity())
+                .locationCode(item.getLocationCode())
+                .userId(item.getUser() == null ? null : item.getUser().getId())
+                .warehouseId(item.getWarehouseEntity() == null ? null : item.getWarehouseEntity().getId())
+                .build();
     }
 
+    @Transactional
     public void deleteItem(Long itemId, User user) {
+        itemRepository.findById(itemId)
+                .ifPresent(item -> {
+                    locationSlotAllocator.release(item.getLocationCode());
+                    itemCache.evict(item.getItemCode());
+                });
         itemRepository.deleteById(itemId);
     }
 }
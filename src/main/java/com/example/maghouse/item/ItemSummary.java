@@ -0,0 +1,20 @@
+package com.example.maghouse.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemSummary {
+    private Long id;
+    private String name;
+    private String itemCode;
+    private int quantity;
+    private String locationCode;
+    private Long userId;
+    private Long warehouseId;
+}
@@ -39,6 +39,7 @@ public class DeliveryResponseToDeliveryMapper implements DeliveryMapper<Delivery
                 .quantity(deliveryResponse.getQuantity())
                 .deliveryStatus(deliveryResponse.getDeliveryStatus())
                 .warehouseLocation(deliveryResponse.getWarehouseLocation())
+                .siteId(deliveryResponse.getSiteId())
                 .user(null)
                 .build();
     }
@@ -54,6 +55,7 @@ public class DeliveryResponseToDeliveryMapper implements DeliveryMapper<Delivery
                 .quantity(deliveryEntity.getQuantity())
                 .deliveryStatus(deliveryEntity.getDeliveryStatus())
                 .warehouseLocation(deliveryEntity.getWarehouseLocation())
+                .siteId(deliveryEntity.getSiteId())
                 .userId(deliveryEntity.getUser().getId())
                 .build();
     }
@@ -3,6 +3,7 @@ package com.example.maghouse.mapper;
 import com.example.maghouse.item.ItemEntity;
 import com.example.maghouse.item.ItemRequest;
 import com.example.maghouse.item.ItemResponse;
+import com.example.maghouse.item.ItemSummary;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -42,4 +43,14 @@ public class ItemResponseToItemMapper implements ItemMapper<ItemRequest, ItemRes
                 .userId(itemEntity.getUser().getId())
                 .build();
     }
+
+    public ItemResponse mapToItem(ItemSummary itemSummary) {
+        return ItemResponse.builder()
+                .name(itemSummary.getName())
+                .itemCode(itemSummary.getItemCode())
+                .quantity(itemSummary.getQuantity())
+                .locationCode(itemSummary.getLocationCode())
+                .userId(itemSummary.getUserId())
+                .build();
+    }
 }
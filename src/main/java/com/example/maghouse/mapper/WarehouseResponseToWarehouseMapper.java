@@ -17,6 +17,7 @@ public class WarehouseResponseToWarehouseMapper implements WarehouseMapper<Wareh
     public WarehouseResponse mapToWarehouseResponse(WarehouseRequest warehouseRequest) {
         return WarehouseResponse.builder()
                 .warehouseLocation(warehouseRequest.getWarehouseLocation())
+                .siteId(warehouseRequest.getSiteId())
                 .itemsId(new ArrayList<>())
                 .build();
     }
@@ -25,6 +26,7 @@ public class WarehouseResponseToWarehouseMapper implements WarehouseMapper<Wareh
     public WarehouseEntity mapToEntityFromResponse(WarehouseResponse warehouseResponse) {
         return WarehouseEntity.builder()
                 .warehouseLocation(warehouseResponse.getWarehouseLocation())
+                .siteId(warehouseResponse.getSiteId())
                 .items(new ArrayList<>())
                 .build();
     }
@@ -33,6 +35,7 @@ public class WarehouseResponseToWarehouseMapper implements WarehouseMapper<Wareh
     public WarehouseResponse mapToWarehouse(WarehouseEntity warehouseEntity) {
         return WarehouseResponse.builder()
                 .warehouseLocation(warehouseEntity.getWarehouseLocation())
+                .siteId(warehouseEntity.getSiteId())
                 .userId(warehouseEntity.getUser().getId())
                 .itemsId(warehouseEntity.getItems().stream()
                         .map(ItemEntity::getId)
@@ -0,0 +1,22 @@
+package com.example.maghouse.query;
+
+public final class LikePatterns {
+
+    public static final char ESCAPE = '\\';
+
+    private LikePatterns() {
+    }
+
+    public static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * A LIKE pattern matching values that start with prefix, to be used with {@link #ESCAPE}.
+     */
+    public static String prefixPattern(String prefix) {
+        return prefix.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
@@ -4,6 +4,7 @@ import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.auth.registration.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +19,7 @@ import java.util.Random;
 
 @Configuration
 @RequiredArgsConstructor
+@Slf4j
 public class AppConfig {
 
     private final UserRepository userRepository;
@@ -25,14 +27,8 @@ public class AppConfig {
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> {
-            User user = userRepository.findUserByEmail(username)
-                    .orElseThrow(() -> new UsernameNotFoundException("User with email not found!"));
-            if (user.getRole().equals("ADMIN")) {
-                System.out.println("Admin found: " + user.getEmail());
-        }
-        return user;
-        };
+        return username -> userRepository.findUserByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User with email not found!"));
     }
 
     @Bean
@@ -67,7 +63,7 @@ public class AppConfig {
                         .build();
                 userRepository.save(admin);
             } else {
-                System.out.println("Admin user already exists!");
+                log.info("Admin user already exists");
             }
 
         };
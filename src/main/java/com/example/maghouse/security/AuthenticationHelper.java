@@ -19,6 +19,9 @@ public class AuthenticationHelper {
             log.warn("Authentication failed - user not authenticated!");
             throw new SecurityException("Authentication failed - user not authenticated!");
         }
+        if (authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            return user;
+        }
         String email = authentication.getName();
         log.debug("User authenticated: {}", email);
         return userService.findByEmail(email);
@@ -0,0 +1,16 @@
+package com.example.maghouse.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LocationStockLevel {
+    private Long itemId;
+    private String locationCode;
+    private long quantity;
+}
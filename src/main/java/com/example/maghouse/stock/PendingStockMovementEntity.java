@@ -0,0 +1,24 @@
+package com.example.maghouse.stock;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "stock_movement_pending")
+public class PendingStockMovementEntity {
+
+    @Id
+    private Long movementId;
+    private Long itemId;
+    private int quantityDelta;
+    private Integer countedQuantity;
+}
@@ -0,0 +1,40 @@
+package com.example.maghouse.stock;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PendingStockMovementRepository extends JpaRepository<PendingStockMovementEntity, Long> {
+
+    /**
+     * Lock timeout Hibernate renders as SKIP LOCKED.
+     */
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Locks the oldest pending movements, skipping rows another projector has already locked.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Query("SELECT p FROM PendingStockMovementEntity p ORDER BY p.movementId")
+    List<PendingStockMovementEntity> claimOldest(Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(p.quantityDelta), 0) FROM PendingStockMovementEntity p WHERE p.itemId = :itemId")
+    long sumPendingDelta(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("DELETE FROM PendingStockMovementEntity p WHERE p.movementId IN :movementIds")
+    int deleteByMovementIds(@Param("movementIds") Collection<Long> movementIds);
+}
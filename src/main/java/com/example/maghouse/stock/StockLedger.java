@@ -0,0 +1,96 @@
+package com.example.maghouse.stock;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Append-only record of every stock movement; quantity changes reach items.quantity through StockProjector.
+ */
+@Service
+@AllArgsConstructor
+public class StockLedger {
+
+    private final StockMovementRepository stockMovementRepository;
+    private final PendingStockMovementRepository pendingStockMovementRepository;
+
+    public void recordOpening(Long itemId, int quantity, Long userId) {
+        record(List.of(movement(itemId, StockMovementType.OPENING, quantity, userId).build()));
+    }
+
+    public void recordReceipt(Long itemId, int quantity, String reference, Long userId) {
+        record(List.of(movement(itemId, StockMovementType.RECEIPT, quantity, userId)
+                .reference(reference)
+                .build()));
+    }
+
+    public void recordAdjustment(Long itemId, int quantityDelta, Long userId) {
+        record(List.of(movement(itemId, StockMovementType.ADJUSTMENT, quantityDelta, userId).build()));
+    }
+
+    public void recordPick(Long itemId, int quantity, String reference, Long userId) {
+        record(List.of(movement(itemId, StockMovementType.PICK, -quantity, userId)
+                .reference(reference)
+                .build()));
+    }
+
+    public void recordRelocation(Long itemId, String fromLocation, String toLocation, Long userId) {
+        record(List.of(relocation(itemId, fromLocation, toLocation, userId)));
+    }
+
+    public StockMovementEntity relocation(Long itemId, String fromLocation, String toLocation, Long userId) {
+        return movement(itemId, StockMovementType.RELOCATION, 0, userId)
+                .fromLocation(fromLocation)
+                .toLocation(toLocation)
+                .build();
+    }
+
+    /**
+     * Inserts the movements as one batch, together with a pending entry for each, so the
+     * projector drains every movement. Openings are already on the item row and add nothing.
+     */
+    public void record(List<StockMovementEntity> movements) {
+        List<PendingStockMovementEntity> pending = stockMovementRepository.saveAll(movements).stream()
+                .map(movement -> PendingStockMovementEntity.builder()
+                        .movementId(movement.getId())
+                        .itemId(movement.getItemId())
+                        .quantityDelta(movement.getMovementType() == StockMovementType.OPENING
+                                ? 0 : movement.getQuantityDelta())
+                        .build())
+                .toList();
+        pendingStockMovementRepository.saveAll(pending);
+    }
+
+    /**
+     * Records a stock count as an adjustment whose delta the projector resolves against the
+     * on-hand quantity once it drains the count.
+     */
+    public void recordCount(Long itemId, int countedQuantity, Long userId) {
+        StockMovementEntity movement =
+                stockMovementRepository.save(movement(itemId, StockMovementType.ADJUSTMENT, 0, userId).build());
+        pendingStockMovementRepository.save(PendingStockMovementEntity.builder()
+                .movementId(movement.getId())
+                .itemId(itemId)
+                .countedQuantity(countedQuantity)
+                .build());
+    }
+
+    public StockLevel stockAt(Long itemId, Instant at) {
+        return new StockLevel(itemId, at, stockMovementRepository.sumQuantityAt(itemId, at));
+    }
+
+    private static StockMovementEntity.StockMovementEntityBuilder movement(Long itemId, StockMovementType type,
+                                                                           int quantityDelta, Long userId) {
+        if (itemId == null) {
+            throw new IllegalArgumentException("Stock movement needs an item!");
+        }
+        return StockMovementEntity.builder()
+                .itemId(itemId)
+                .movementType(type)
+                .quantityDelta(quantityDelta)
+                .userId(userId)
+                .occurredAt(Instant.now());
+    }
+}
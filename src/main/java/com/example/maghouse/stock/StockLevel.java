@@ -0,0 +1,18 @@
+package com.example.maghouse.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockLevel {
+    private Long itemId;
+    private Instant at;
+    private long quantity;
+}
@@ -0,0 +1,43 @@
+package com.example.maghouse.stock;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "stock_movement", indexes = {
+        @Index(name = "ix_stock_movement_item_time", columnList = "item_id, occurred_at"),
+        @Index(name = "ix_stock_movement_time", columnList = "occurred_at"),
+        @Index(name = "ix_stock_movement_drain_seq", columnList = "drain_seq")
+})
+public class StockMovementEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_seq")
+    @SequenceGenerator(name = "stock_movement_seq", sequenceName = "stock_movement_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockMovementType movementType;
+    private int quantityDelta;
+    @Column(length = 50)
+    private String fromLocation;
+    @Column(length = 50)
+    private String toLocation;
+    private String reference;
+    private Long userId;
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+    @Column(name = "drain_seq")
+    private Long drainSeq;
+}
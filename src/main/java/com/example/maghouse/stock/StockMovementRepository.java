@@ -0,0 +1,65 @@
+package com.example.maghouse.stock;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovementEntity, Long> {
+
+    @Query("SELECT COALESCE(SUM(m.quantityDelta), 0) FROM StockMovementEntity m " +
+            "WHERE m.itemId = :itemId AND m.occurredAt <= :at")
+    long sumQuantityAt(@Param("itemId") Long itemId, @Param("at") Instant at);
+
+    List<StockMovementEntity> findByItemIdOrderByIdAsc(Long itemId);
+
+    /**
+     * Marks the movements as projected by the batch with the given drain sequence number.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockMovementEntity m SET m.drainSeq = :drainSeq WHERE m.id IN :ids")
+    int markDrained(@Param("ids") Collection<Long> ids, @Param("drainSeq") long drainSeq);
+
+    @Modifying
+    @Query("UPDATE StockMovementEntity m SET m.quantityDelta = :quantityDelta WHERE m.id = :id")
+    int updateQuantityDelta(@Param("id") Long id, @Param("quantityDelta") int quantityDelta);
+
+    /**
+     * Movements projected by the batches after {@code afterSeq} up to and including
+     * {@code upToSeq}, in drain order, read through a forward-only cursor. Has to be consumed
+     * and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.maghouse.stock.StockMovementSummary(m.id, m.itemId, m.movementType, " +
+            "m.quantityDelta, m.toLocation, m.occurredAt, m.drainSeq) FROM StockMovementEntity m " +
+            "WHERE m.drainSeq > :afterSeq AND m.drainSeq <= :upToSeq ORDER BY m.drainSeq, m.id")
+    Stream<StockMovementSummary> streamDrained(@Param("afterSeq") long afterSeq, @Param("upToSeq") long upToSeq);
+
+    /**
+     * Movements not projected up to {@code afterSeq}, drained or not yet, that happened up
+     * to and including {@code to}, in drain order with the undrained ones last, read through
+     * a forward-only cursor. Has to be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.maghouse.stock.StockMovementSummary(m.id, m.itemId, m.movementType, " +
+            "m.quantityDelta, m.toLocation, m.occurredAt, m.drainSeq) FROM StockMovementEntity m " +
+            "WHERE (m.drainSeq > :afterSeq OR m.drainSeq IS NULL) AND m.occurredAt <= :to " +
+            "ORDER BY m.drainSeq NULLS LAST, m.id")
+    Stream<StockMovementSummary> streamSummariesAfter(@Param("afterSeq") long afterSeq, @Param("to") Instant to);
+}
@@ -0,0 +1,22 @@
+package com.example.maghouse.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockMovementSummary {
+    private Long id;
+    private Long itemId;
+    private StockMovementType movementType;
+    private int quantityDelta;
+    private String toLocation;
+    private Instant occurredAt;
+    private Long drainSeq;
+}
@@ -0,0 +1,9 @@
+package com.example.maghouse.stock;
+
+public enum StockMovementType {
+    OPENING,
+    RECEIPT,
+    ADJUSTMENT,
+    RELOCATION,
+    PICK
+}
@@ -0,0 +1,24 @@
+package com.example.maghouse.stock;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "stock_projection")
+public class StockProjectionEntity {
+
+    public static final int CURSOR_ID = 1;
+
+    @Id
+    private Integer id;
+    private long lastDrainSeq;
+}
@@ -0,0 +1,29 @@
+package com.example.maghouse.stock;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StockProjectionRepository extends JpaRepository<StockProjectionEntity, Integer> {
+
+    /**
+     * Locks the projection cursor, so drain sequence numbers are handed out and committed in order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM StockProjectionEntity p WHERE p.id = :id")
+    Optional<StockProjectionEntity> findByIdForUpdate(@Param("id") Integer id);
+
+    @Modifying
+    @Query("UPDATE StockProjectionEntity p SET p.lastDrainSeq = :lastDrainSeq WHERE p.id = :id")
+    int updateLastDrainSeq(@Param("id") Integer id, @Param("lastDrainSeq") long lastDrainSeq);
+
+    @Query("SELECT p.lastDrainSeq FROM StockProjectionEntity p WHERE p.id = :id")
+    Optional<Long> findLastDrainSeqById(@Param("id") Integer id);
+}
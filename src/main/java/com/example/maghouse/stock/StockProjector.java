@@ -0,0 +1,135 @@
+package com.example.maghouse.stock;
+
+import com.example.maghouse.item.ItemCache;
+import com.example.maghouse.item.ItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Folds pending stock movements into items.quantity, one increment per item and batch, and
+ * stamps each batch with the next drain sequence number.
+ */
+@Component
+@Slf4j
+public class StockProjector {
+
+    private final PendingStockMovementRepository pendingStockMovementRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockProjectionRepository stockProjectionRepository;
+    private final ItemRepository itemRepository;
+    private final ItemCache itemCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter projectedMovements;
+
+    public StockProjector(PendingStockMovementRepository pendingStockMovementRepository,
+                          StockMovementRepository stockMovementRepository,
+                          StockProjectionRepository stockProjectionRepository,
+                          ItemRepository itemRepository,
+                          ItemCache itemCache,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${maghouse.stock.projection.batch-size:1000}") int batchSize,
+                          @Value("${maghouse.stock.projection.max-batches:100}") int maxBatches) {
+        if (batchSize <= 0 || maxBatches <= 0) {
+            throw new IllegalArgumentException("Stock projection batch size and batch count must be positive!");
+        }
+        this.pendingStockMovementRepository = pendingStockMovementRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockProjectionRepository = stockProjectionRepository;
+        this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.projectedMovements = Counter.builder("maghouse.stock.projected")
+                .description("Stock movements folded into on-hand quantities")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${maghouse.stock.projection.interval:PT1S}")
+    public void scheduledProject() {
+        try {
+            project();
+        } catch (RuntimeException e) {
+            log.warn("Stock projection run failed, retrying on the next run", e);
+        }
+    }
+
+    /**
+     * Projects pending movements until none are left or max-batches is reached and returns
+     * how many were applied.
+     */
+    public int project() {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer projected = transactionTemplate.execute(status -> projectBatch());
+            total += projected;
+            if (projected < batchSize) {
+                break;
+            }
+        }
+        projectedMovements.increment(total);
+        return total;
+    }
+
+    /**
+     * Claims a batch while holding the projection cursor, so batches get their drain sequence
+     * numbers in commit order and a snapshot that reads the cursor sees every batch up to it.
+     * Holding the cursor also makes this the only writer of items.quantity, which is what lets
+     * a stock count be resolved against it.
+     */
+    private int projectBatch() {
+        StockProjectionEntity cursor = stockProjectionRepository.findByIdForUpdate(StockProjectionEntity.CURSOR_ID)
+                .orElseGet(() -> stockProjectionRepository.save(new StockProjectionEntity(StockProjectionEntity.CURSOR_ID, 0)));
+        List<PendingStockMovementEntity> pending =
+                pendingStockMovementRepository.claimOldest(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long drainSeq = cursor.getLastDrainSeq() + 1;
+        List<Long> movementIds = pending.stream()
+                .map(PendingStockMovementEntity::getMovementId)
+                .toList();
+        if (pendingStockMovementRepository.deleteByMovementIds(movementIds) != movementIds.size()) {
+            throw new IllegalStateException("Pending stock movements were projected concurrently!");
+        }
+        stockMovementRepository.markDrained(movementIds, drainSeq);
+        stockProjectionRepository.updateLastDrainSeq(StockProjectionEntity.CURSOR_ID, drainSeq);
+        Map<Long, Integer> deltaByItem = new TreeMap<>();
+        pending.forEach(movement -> deltaByItem.merge(movement.getItemId(), deltaOf(movement, deltaByItem), Integer::sum));
+        deltaByItem.values().removeIf(delta -> delta == 0);
+        deltaByItem.forEach(itemRepository::incrementQuantityById);
+        if (!deltaByItem.isEmpty()) {
+            itemRepository.findItemCodesByIds(deltaByItem.keySet()).forEach(itemCache::evict);
+        }
+        return pending.size();
+    }
+
+    /**
+     * Resolves a stock count into the difference to the quantity projected so far, including
+     * the earlier movements of this batch, and writes it back to the ledger.
+     */
+    private int deltaOf(PendingStockMovementEntity movement, Map<Long, Integer> deltaByItem) {
+        if (movement.getCountedQuantity() == null) {
+            return movement.getQuantityDelta();
+        }
+        int delta = itemRepository.findQuantityById(movement.getItemId())
+                .map(quantity -> movement.getCountedQuantity() - quantity - deltaByItem.getOrDefault(movement.getItemId(), 0))
+                .orElse(0);
+        stockMovementRepository.updateQuantityDelta(movement.getMovementId(), delta);
+        return delta;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.maghouse.stock;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "stock_snapshot", indexes = {
+        @Index(name = "ix_stock_snapshot_taken_at", columnList = "taken_at")
+})
+public class StockSnapshotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt;
+    @Column(unique = true)
+    private LocalDate snapshotDate;
+    private long lastDrainSeq;
+    private int itemCount;
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] payload;
+}
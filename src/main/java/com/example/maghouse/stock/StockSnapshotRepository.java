@@ -0,0 +1,27 @@
+package com.example.maghouse.stock;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshotEntity, Long> {
+
+    Optional<StockSnapshotEntity> findFirstByTakenAtLessThanEqualOrderByTakenAtDesc(Instant at);
+
+    boolean existsBySnapshotDate(LocalDate snapshotDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO stock_snapshot (taken_at, snapshot_date, last_drain_seq, item_count, payload) " +
+            "VALUES (:takenAt, :snapshotDate, :lastDrainSeq, :itemCount, :payload) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("takenAt") Instant takenAt, @Param("snapshotDate") LocalDate snapshotDate,
+                       @Param("lastDrainSeq") long lastDrainSeq, @Param("itemCount") int itemCount,
+                       @Param("payload") byte[] payload);
+}
@@ -0,0 +1,128 @@
+package com.example.maghouse.stock;
+
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Point-in-time stock per item and location, replayed from the latest snapshot's drain sequence watermark.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class StockSnapshotService {
+
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockProjectionRepository stockProjectionRepository;
+    private final WarehouseSiteRegistry warehouseSiteRegistry;
+
+    /**
+     * Takes the day's snapshot on one instance only: the others find it already taken, or
+     * lose the insert on the unique snapshot_date.
+     */
+    @Scheduled(cron = "${maghouse.stock.snapshot.cron:0 0 2 * * *}")
+    @Transactional
+    public void scheduledSnapshot() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (stockSnapshotRepository.existsBySnapshotDate(today)) {
+            log.debug("Stock snapshot for {} already taken", today);
+            return;
+        }
+        StockSnapshotEntity snapshot = buildSnapshot(Instant.now());
+        if (stockSnapshotRepository.insertIfAbsent(snapshot.getTakenAt(), today, snapshot.getLastDrainSeq(),
+                snapshot.getItemCount(), snapshot.getPayload()) == 0) {
+            log.debug("Stock snapshot for {} taken by another instance", today);
+            return;
+        }
+        log.info("Stock snapshot for {} taken up to drain batch {} with {} items in {} bytes",
+                today, snapshot.getLastDrainSeq(), snapshot.getItemCount(), snapshot.getPayload().length);
+    }
+
+    @Transactional
+    public StockSnapshotEntity takeSnapshot(Instant takenAt) {
+        StockSnapshotEntity snapshot = stockSnapshotRepository.save(buildSnapshot(takenAt));
+        log.info("Stock snapshot {} taken at {} up to movement {} with {} items in {} bytes",
+                snapshot.getId(), takenAt, snapshot.getLastDrainSeq(), snapshot.getItemCount(),
+                snapshot.getPayload().length);
+        return snapshot;
+    }
+
+    /**
+     * Stock of every item located in the given warehouse site at the given instant, or of every
+     * item when no site is given, in item id order.
+     */
+    @Transactional
+    public List<LocationStockLevel> stockAt(Integer siteId, Instant at) {
+        if (at == null) {
+            throw new IllegalArgumentException("Point in time cannot be null!");
+        }
+        Optional<StockSnapshotEntity> snapshot = stockSnapshotRepository.findFirstByTakenAtLessThanEqualOrderByTakenAtDesc(at);
+        StockState state = stateOf(snapshot);
+        try (Stream<StockMovementSummary> movements =
+                     stockMovementRepository.streamSummariesAfter(watermarkOf(snapshot), at)) {
+            movements.forEach(state::apply);
+        }
+        return state.levelsAt(siteId, warehouseSiteRegistry.getLocationCodeFormat());
+    }
+
+    /**
+     * Folds the batches drained after the previous snapshot, up to the projection cursor, and
+     * stops before the first batch holding a movement that happened after {@code takenAt}.
+     * Batches are committed in drain order, so a movement can never land below the watermark
+     * once it is taken; the ones left out are picked up by the replay.
+     */
+    private StockSnapshotEntity buildSnapshot(Instant takenAt) {
+        Optional<StockSnapshotEntity> previous = stockSnapshotRepository.findFirstByTakenAtLessThanEqualOrderByTakenAtDesc(takenAt);
+        StockState state = stateOf(previous);
+        long watermark = watermarkOf(previous);
+        long drained = stockProjectionRepository.findLastDrainSeqById(StockProjectionEntity.CURSOR_ID).orElse(0L);
+        List<StockMovementSummary> batch = new ArrayList<>();
+        long batchSeq = watermark;
+        try (Stream<StockMovementSummary> movements = stockMovementRepository.streamDrained(watermark, drained)) {
+            Iterator<StockMovementSummary> iterator = movements.iterator();
+            while (iterator.hasNext()) {
+                StockMovementSummary movement = iterator.next();
+                if (movement.getDrainSeq() != batchSeq) {
+                    batch.forEach(state::apply);
+                    batch.clear();
+                    watermark = batchSeq;
+                    batchSeq = movement.getDrainSeq();
+                }
+                if (movement.getOccurredAt().isAfter(takenAt)) {
+                    batch.clear();
+                    batchSeq = watermark;
+                    break;
+                }
+                batch.add(movement);
+            }
+        }
+        batch.forEach(state::apply);
+        return StockSnapshotEntity.builder()
+                .takenAt(takenAt)
+                .lastDrainSeq(batchSeq)
+                .itemCount(state.size())
+                .payload(state.encode())
+                .build();
+    }
+
+    private static StockState stateOf(Optional<StockSnapshotEntity> snapshot) {
+        return snapshot.map(s -> StockState.decode(s.getPayload())).orElseGet(StockState::new);
+    }
+
+    private static long watermarkOf(Optional<StockSnapshotEntity> snapshot) {
+        return snapshot.map(StockSnapshotEntity::getLastDrainSeq).orElse(0L);
+    }
+}
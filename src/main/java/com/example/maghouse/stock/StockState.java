@@ -0,0 +1,147 @@
+package com.example.maghouse.stock;
+
+import com.example.maghouse.warehouse.location.LocationCode;
+import com.example.maghouse.warehouse.location.LocationCodeFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quantity and location of every item at one instant, with a compact columnar encoding.
+ */
+final class StockState {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final Map<Long, Integer> quantities = new HashMap<>();
+    private final Map<Long, String> locations = new HashMap<>();
+
+    void apply(StockMovementSummary movement) {
+        quantities.merge(movement.getItemId(), movement.getQuantityDelta(), Integer::sum);
+        if (movement.getMovementType() == StockMovementType.RELOCATION || movement.getToLocation() != null) {
+            locations.put(movement.getItemId(), movement.getToLocation());
+        }
+    }
+
+    int size() {
+        return quantities.size();
+    }
+
+    List<LocationStockLevel> levelsAt(Integer siteId, LocationCodeFormat format) {
+        long[] itemIds = sortedItemIds();
+        List<LocationStockLevel> levels = new ArrayList<>();
+        for (long itemId : itemIds) {
+            String location = locations.get(itemId);
+            LocationCode code = siteId == null ? null : format.parse(location);
+            if (siteId == null || (code != null && code.getSiteId() == siteId)) {
+                levels.add(new LocationStockLevel(itemId, location, quantities.get(itemId)));
+            }
+        }
+        return levels;
+    }
+
+    byte[] encode() {
+        long[] itemIds = sortedItemIds();
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (long itemId : itemIds) {
+            String location = locations.get(itemId);
+            if (location != null) {
+                dictionary.putIfAbsent(location, dictionary.size() + 1);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(itemIds.length * 6 + 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeVarint(out, FORMAT_VERSION);
+            writeVarint(out, dictionary.size());
+            for (String location : dictionary.keySet()) {
+                out.writeUTF(location);
+            }
+            writeVarint(out, itemIds.length);
+            long previous = 0;
+            for (long itemId : itemIds) {
+                writeVarint(out, itemId - previous);
+                previous = itemId;
+            }
+            for (long itemId : itemIds) {
+                int quantity = quantities.get(itemId);
+                writeVarint(out, ((quantity << 1) ^ (quantity >> 31)) & 0xffffffffL);
+            }
+            for (long itemId : itemIds) {
+                String location = locations.get(itemId);
+                writeVarint(out, location == null ? 0 : dictionary.get(location));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static StockState decode(byte[] payload) {
+        StockState state = new StockState();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long version = readVarint(in);
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported stock snapshot format: " + version);
+            }
+            String[] dictionary = new String[(int) readVarint(in) + 1];
+            for (int i = 1; i < dictionary.length; i++) {
+                dictionary[i] = in.readUTF();
+            }
+            long[] itemIds = new long[(int) readVarint(in)];
+            long previous = 0;
+            for (int i = 0; i < itemIds.length; i++) {
+                previous += readVarint(in);
+                itemIds[i] = previous;
+            }
+            for (long itemId : itemIds) {
+                int zigzag = (int) readVarint(in);
+                state.quantities.put(itemId, (zigzag >>> 1) ^ -(zigzag & 1));
+            }
+            for (long itemId : itemIds) {
+                String location = dictionary[(int) readVarint(in)];
+                if (location != null) {
+                    state.locations.put(itemId, location);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return state;
+    }
+
+    private long[] sortedItemIds() {
+        long[] itemIds = quantities.keySet().stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(itemIds);
+        return itemIds;
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7fL) != 0) {
+            out.writeByte((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed stock snapshot varint");
+    }
+}
@@ -4,17 +4,16 @@ import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.item.ItemEntity;
 import com.example.maghouse.warehouse.location.WarehouseLocation;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
+import org.hibernate.Hibernate;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Data
+@Getter
+@Setter
+@ToString
 @Table(name = "warehouse")
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,14 +21,42 @@ import java.util.List;
 public class WarehouseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warehouse_seq")
+    @SequenceGenerator(name = "warehouse_seq", sequenceName = "warehouse_seq", allocationSize = 50)
     private Long id;
-    @NotNull(message = "Location required!")
     @Enumerated(EnumType.STRING)
     private WarehouseLocation warehouseLocation;
+    @Column(name = "site_id")
+    private Integer siteId;
     @ManyToOne
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
     private User user;
     @OneToMany(mappedBy = "warehouseEntity", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @Builder.Default
     private List<ItemEntity> items = new ArrayList<>();
+
+    @PrePersist
+    void resolveSiteId() {
+        if (siteId == null && warehouseLocation != null) {
+            siteId = warehouseLocation.getSiteId();
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || Hibernate.getClass(this) != Hibernate.getClass(other)) {
+            return false;
+        }
+        return id != null && id.equals(((WarehouseEntity) other).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
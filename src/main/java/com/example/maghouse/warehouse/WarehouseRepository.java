@@ -12,4 +12,6 @@ public interface WarehouseRepository extends JpaRepository<WarehouseEntity, Long
     Optional<WarehouseEntity> findFirstByWarehouseLocation(WarehouseLocation location);
 
     Optional<WarehouseEntity> findByWarehouseLocation(WarehouseLocation warehouseLocation);
+
+    Optional<WarehouseEntity> findFirstBySiteId(Integer siteId);
 }
@@ -12,4 +12,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class WarehouseRequest {
     private WarehouseLocation warehouseLocation;
+    private Integer siteId;
+
+    public WarehouseRequest(WarehouseLocation warehouseLocation) {
+        this(warehouseLocation, null);
+    }
 }
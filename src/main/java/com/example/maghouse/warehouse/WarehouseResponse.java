@@ -14,6 +14,7 @@ import java.util.List;
 @NoArgsConstructor
 public class WarehouseResponse {
     private WarehouseLocation warehouseLocation;
+    private Integer siteId;
     private Long userId;
     private List<Long> itemsId;
 }
@@ -1,16 +1,25 @@
 package com.example.maghouse.warehouse;
 
 import com.example.maghouse.auth.registration.user.User;
-import com.example.maghouse.auth.registration.user.UserRepository;
+import com.example.maghouse.item.ItemCache;
 import com.example.maghouse.item.ItemEntity;
 import com.example.maghouse.item.ItemRepository;
 import com.example.maghouse.mapper.WarehouseResponseToWarehouseMapper;
+import com.example.maghouse.stock.StockLedger;
+import com.example.maghouse.stock.StockMovementEntity;
+import com.example.maghouse.warehouse.location.LocationCode;
+import com.example.maghouse.warehouse.location.LocationCodeFormat;
 import com.example.maghouse.warehouse.location.WarehouseLocation;
 import com.example.maghouse.warehouse.location.WarehouseLocationRequest;
+import com.example.maghouse.warehouse.site.WarehouseSite;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import com.example.maghouse.warehouse.slot.LocationSlotAllocator;
+import com.example.maghouse.warehouse.spacetype.ItemSpaceTypeRequest;
 import com.example.maghouse.warehouse.spacetype.WarehouseSpaceType;
 import com.example.maghouse.warehouse.spacetype.WarehouseSpaceTypeRequest;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -22,10 +31,14 @@ import java.util.*;
 public class WarehouseService {
 
     public static final String STARTING_LOCATION_PREFIX = "";
+    public static final int MAX_SPACE_TYPE_BATCH_SIZE = 1000;
     private final WarehouseResponseToWarehouseMapper warehouseResponseToWarehouseMapper;
-    private final UserRepository userRepository;
     private final WarehouseRepository warehouseRepository;
     private final ItemRepository itemRepository;
+    private final LocationSlotAllocator locationSlotAllocator;
+    private final ItemCache itemCache;
+    private final StockLedger stockLedger;
+    private final WarehouseSiteRegistry warehouseSiteRegistry;
     private static final Logger LOGGER = LoggerFactory.getLogger(WarehouseService.class);
 
     public List<WarehouseEntity> getAllWarehouses() {
@@ -33,9 +46,10 @@ public class WarehouseService {
     }
 
     public List<ItemEntity> getAllItemsByLocationCodePrefix(WarehouseLocation warehouseLocation) {
-        String prefix = generateLocationPrefix(warehouseLocation);
-        return itemRepository.findByItemLocationStartingWith(prefix);
-
+        if (warehouseLocation == null) {
+            throw new IllegalArgumentException("Unknown location!");
+        }
+        return itemRepository.findByLocationSite(warehouseSiteRegistry.siteOf(warehouseLocation).getId());
     }
 
     @Transactional
@@ -43,20 +57,20 @@ public class WarehouseService {
         if (user == null) {
             throw new IllegalArgumentException("User cannot be null");
         }
-        LOGGER.info("Request to create warehouse: userId={}, location={}",
-                user.getId(), warehouseRequest.getWarehouseLocation());
-        String locationPrefix = generateLocationPrefix(warehouseRequest.getWarehouseLocation());
-        LOGGER.debug("Generated location prefix={} for location={}",
-                locationPrefix, warehouseRequest.getWarehouseLocation());
-        List<ItemEntity> items = getItemsByPrefix(warehouseRequest, locationPrefix, user);
-        LOGGER.debug("Found {} items for prefix={}", items.size(), locationPrefix);
-        WarehouseEntity warehouse = buildWarehouseEntity(warehouseRequest, user, items);
+        LOGGER.info("Request to create warehouse: userId={}, location={}, siteId={}",
+                user.getId(), warehouseRequest.getWarehouseLocation(), warehouseRequest.getSiteId());
+        WarehouseSite site = resolveSite(warehouseRequest.getSiteId(), warehouseRequest.getWarehouseLocation());
+        LOGGER.debug("Resolved location prefix={} for siteId={}", site.getPrefix(), site.getId());
+        List<ItemEntity> items = getItemsBySite(site, user);
+        LOGGER.debug("Found {} items for prefix={}", items.size(), site.getPrefix());
+        WarehouseEntity warehouse = buildWarehouseEntity(site, user, items);
         warehouseRepository.save(warehouse);
         itemRepository.saveAll(items);
+        itemCache.evictAll(items);
 
-        LOGGER.info("Warehouse created successfully: id={}, location={}, itemsCount={}, userId={}",
+        LOGGER.info("Warehouse created successfully: id={}, siteId={}, itemsCount={}, userId={}",
                 warehouse.getId(),
-                warehouseRequest.getWarehouseLocation(),
+                site.getId(),
                 items.size(),
                 user.getId()
         );
@@ -69,16 +83,21 @@ public class WarehouseService {
         if (user == null) {
             throw new IllegalArgumentException("User cannot be null");
         }
-        LOGGER.info("Request to add space type to Item: itemId = {}, location = {}",
-                itemId, warehouseLocationRequest.getWarehouseLocation());
+        LOGGER.info("Request to add space type to Item: itemId = {}, location = {}, siteId = {}",
+                itemId, warehouseLocationRequest.getWarehouseLocation(), warehouseLocationRequest.getSiteId());
         ItemEntity item = getItemById(itemId, user);
-        String locationPrefix = generateLocationPrefix(warehouseLocationRequest.getWarehouseLocation());
-        String newLocation = locationPrefix + item.getLocationCode();
-        item.setLocationCode(newLocation);
+        WarehouseSite site = resolveSite(warehouseLocationRequest);
+        LocationCodeFormat format = warehouseSiteRegistry.getLocationCodeFormat();
+        LocationCode location = format.parse(item.getLocationCode());
+        String newLocation = location != null
+                ? format.format(location.inSite(site.getId()))
+                : site.getPrefix() + item.getLocationCode();
+        moveItem(item, newLocation, user);
         item.setUser(user);
-        WarehouseEntity warehouse = getOrCreateWarehouseForLocation(warehouseLocationRequest, user);
+        itemCache.evict(item.getItemCode());
+        WarehouseEntity warehouse = getOrCreateWarehouseForSite(site, user);
         addItemToWarehouse(item, warehouse);
-        LOGGER.info("Successfully assigned location: {} to itemId: {}", newLocation, itemId);
+        LOGGER.info("Successfully assigned location: {} to itemId: {}", item.getLocationCode(), itemId);
         return item;
     }
 
@@ -87,17 +106,19 @@ public class WarehouseService {
         if (user == null) {
             throw new IllegalArgumentException("User cannot be null");
         }
-        LOGGER.info("Request to update location to Item: itemId = {}, location = {}",
-                id, warehouseLocationRequest.getWarehouseLocation());
+        LOGGER.info("Request to update location to Item: itemId = {}, location = {}, siteId = {}",
+                id, warehouseLocationRequest.getWarehouseLocation(), warehouseLocationRequest.getSiteId());
         ItemEntity item = getItemById(id, user);
-        String newLocationCode = updateItemLocationCode(item, warehouseLocationRequest);
-        item.setLocationCode(newLocationCode);
+        WarehouseSite site = resolveSite(warehouseLocationRequest);
+        String newLocationCode = updateItemLocationCode(item, site);
+        moveItem(item, newLocationCode, user);
         item.setUser(user);
+        itemCache.evict(item.getItemCode());
         removeItemFromCurrentWarehouse(item);
-        WarehouseEntity warehouse = getOrCreateWarehouseForLocation(warehouseLocationRequest, user);
+        WarehouseEntity warehouse = getOrCreateWarehouseForSite(site, user);
         addItemToWarehouse(item, warehouse);
         LOGGER.info("Successfully updated itemId={} to newLocationCode={} in warehouseId={}",
-                item.getId(), newLocationCode, warehouse.getId());
+                item.getId(), item.getLocationCode(), warehouse.getId());
         return item;
     }
 
@@ -113,31 +134,93 @@ public class WarehouseService {
                 });
 
         String baseLocation = generateBaseCodeSpaceType(warehouseSpaceTypeRequest.getWarehouseSpaceType());
-        Set<String> usedSpaces = new HashSet<>(itemRepository.findUsedLocationCodes(baseLocation));
-        Optional<String> locationCode = findAvailableSpace(STARTING_LOCATION_PREFIX, baseLocation, usedSpaces);
+        Optional<String> locationCode = locationSlotAllocator.allocate(STARTING_LOCATION_PREFIX + baseLocation,
+                item.getId());
 
         return locationCode
                 .map(lc -> {
+                    stockLedger.recordRelocation(item.getId(), null, lc, user.getId());
                     item.setLocationCode(lc);
                     item.setUser(user);
+                    itemCache.evict(item.getItemCode());
                     LOGGER.info("Successfully assigned locationCode={} to itemId={} for userId={}",
                             locationCode, item.getId(), user.getId());
                     return item;
                 })
                 .orElseThrow(() -> {
-                    LOGGER.info("Not implemented yet. TODO | FIXME");
+                    LOGGER.warn("No free slot left for spaceType={}, capacity={}",
+                            warehouseSpaceTypeRequest.getWarehouseSpaceType(),
+                            locationSlotAllocator.capacity(STARTING_LOCATION_PREFIX + baseLocation));
                     return new IllegalArgumentException("Unable to assign location code!");
                 });
     }
 
-    public WarehouseLocation getWarehouseLocationByPrefix(String prefix) {
-        for (WarehouseLocation location : WarehouseLocation.values()) {
-            String locationPrefix = generateLocationPrefix(location);
-            if (locationPrefix.equals(prefix.toUpperCase())) {
-                return location;
+    @Transactional
+    public List<ItemEntity> assignWarehouseSpaceTypes(List<ItemSpaceTypeRequest> itemSpaceTypeRequests, User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        if (itemSpaceTypeRequests == null || itemSpaceTypeRequests.isEmpty()) {
+            throw new IllegalArgumentException("Space type requests cannot be empty!");
+        }
+        if (itemSpaceTypeRequests.size() > MAX_SPACE_TYPE_BATCH_SIZE) {
+            throw new IllegalArgumentException("Cannot assign more than " + MAX_SPACE_TYPE_BATCH_SIZE
+                    + " items at once!");
+        }
+        LOGGER.info("Request to add space types to {} items by userId={}", itemSpaceTypeRequests.size(), user.getId());
+
+        Map<WarehouseSpaceType, List<Long>> itemIdsBySpaceType = new EnumMap<>(WarehouseSpaceType.class);
+        Set<Long> itemIds = new LinkedHashSet<>();
+        for (ItemSpaceTypeRequest request : itemSpaceTypeRequests) {
+            generateBaseCodeSpaceType(request.getWarehouseSpaceType());
+            if (request.getItemId() == null || !itemIds.add(request.getItemId())) {
+                throw new IllegalArgumentException("Each item id must be given exactly once!");
             }
+            itemIdsBySpaceType.computeIfAbsent(request.getWarehouseSpaceType(), type -> new ArrayList<>())
+                    .add(request.getItemId());
+        }
+
+        Map<Long, ItemEntity> itemsById = new HashMap<>();
+        itemRepository.findUnassignedItems(itemIds).forEach(item -> itemsById.put(item.getId(), item));
+        if (itemsById.size() != itemIds.size()) {
+            List<Long> missing = itemIds.stream()
+                    .filter(id -> !itemsById.containsKey(id))
+                    .toList();
+            LOGGER.warn("Items {} not found or already have a location code", missing);
+            throw new IllegalArgumentException("Items not found or already have a locationCode: " + missing);
         }
-        throw new IllegalArgumentException("Unknow location prefix: " + prefix);
+
+        List<StockMovementEntity> relocations = new ArrayList<>(itemIds.size());
+        itemIdsBySpaceType.forEach((spaceType, ids) -> {
+            String prefix = STARTING_LOCATION_PREFIX + generateBaseCodeSpaceType(spaceType);
+            List<String> locationCodes = locationSlotAllocator.allocateAll(prefix, ids)
+                    .orElseThrow(() -> {
+                        LOGGER.warn("Not enough free slots for {} items of spaceType={}, capacity={}",
+                                ids.size(), spaceType, locationSlotAllocator.capacity(prefix));
+                        return new IllegalArgumentException("Unable to assign location code!");
+                    });
+            for (int i = 0; i < ids.size(); i++) {
+                ItemEntity item = itemsById.get(ids.get(i));
+                item.setLocationCode(locationCodes.get(i));
+                item.setUser(user);
+                relocations.add(stockLedger.relocation(item.getId(), null, locationCodes.get(i), user.getId()));
+            }
+        });
+        stockLedger.record(relocations);
+
+        List<ItemEntity> items = itemIds.stream()
+                .map(itemsById::get)
+                .toList();
+        itemRepository.saveAll(items);
+        itemCache.evictAll(items);
+        LOGGER.info("Successfully assigned location codes to {} items for userId={}", items.size(), user.getId());
+        return items;
+    }
+
+    public WarehouseLocation getWarehouseLocationByPrefix(String prefix) {
+        return warehouseSiteRegistry.findByPrefix(prefix)
+                .map(WarehouseSite::getWarehouseLocation)
+                .orElseThrow(() -> new IllegalArgumentException("Unknow location prefix: " + prefix));
     }
 
     private ItemEntity getItemById(Long id, User user) {
@@ -149,20 +232,19 @@ public class WarehouseService {
                 });
     }
 
-    private List<ItemEntity> getItemsByPrefix(WarehouseRequest warehouseRequest,
-                                              String locationPrefix, User user) {
-        List<ItemEntity> items = itemRepository.findByItemLocationStartingWith(locationPrefix);
+    private List<ItemEntity> getItemsBySite(WarehouseSite site, User user) {
+        List<ItemEntity> items = itemRepository.findByLocationSite(site.getId());
         if (items.isEmpty()) {
             LOGGER.warn("No items found for location Prefix while creating warehouse." +
-                            "Location: {}, Prefix: {}, User: {}",
-                    warehouseRequest.getWarehouseLocation(), locationPrefix, user.getId());
-            throw new IllegalArgumentException("No items found for location prefix: " + locationPrefix);
+                            "SiteId: {}, Prefix: {}, User: {}",
+                    site.getId(), site.getPrefix(), user.getId());
+            throw new IllegalArgumentException("No items found for location prefix: " + site.getPrefix());
         }
         return items;
     }
 
-    private WarehouseEntity buildWarehouseEntity(WarehouseRequest warehouseRequest,
-                                                 User user, List<ItemEntity> items) {
+    private WarehouseEntity buildWarehouseEntity(WarehouseSite site, User user, List<ItemEntity> items) {
+        WarehouseRequest warehouseRequest = new WarehouseRequest(site.getWarehouseLocation(), site.getId());
         WarehouseResponse warehouseResponse = warehouseResponseToWarehouseMapper.mapToWarehouseResponse(warehouseRequest);
         warehouseResponse.setUserId(user.getId());
         warehouseResponse.setItemsId(items.stream()
@@ -178,25 +260,35 @@ public class WarehouseService {
         return warehouse;
     }
 
-    private String updateItemLocationCode(ItemEntity item,
-                                          WarehouseLocationRequest warehouseLocationRequest) {
+    private String updateItemLocationCode(ItemEntity item, WarehouseSite site) {
         String currentLocation = item.getLocationCode();
         if (currentLocation == null || currentLocation.length() <= 1) {
             LOGGER.error("Invalid locationCode for itemId={}: {}", item.getId(), currentLocation);
             throw new IllegalArgumentException("item location code is invalid or too short for update!");
         }
-        String restOfString = currentLocation.substring(1);
-        String newPrefix = generateLocationPrefix(warehouseLocationRequest.getWarehouseLocation());
-        String newLocationCode = newPrefix + restOfString;
+        LocationCodeFormat format = warehouseSiteRegistry.getLocationCodeFormat();
+        LocationCode location = format.parse(currentLocation);
+        String newLocationCode = location != null
+                ? format.format(location.inSite(site.getId()))
+                : site.getPrefix() + currentLocation.substring(1);
         LOGGER.debug("Changed locationCode from {} -> {} for itemId={}",
                 currentLocation, newLocationCode, item.getId());
         return newLocationCode;
     }
 
+    private void moveItem(ItemEntity item, String preferredLocationCode, User user) {
+        String newLocationCode = locationSlotAllocator.relocate(item.getLocationCode(), preferredLocationCode,
+                item.getId());
+        stockLedger.recordRelocation(item.getId(), item.getLocationCode(), newLocationCode, user.getId());
+        item.setLocationCode(newLocationCode);
+    }
+
     private boolean removeItemFromCurrentWarehouse(ItemEntity item) {
         WarehouseEntity currentWarehouse = item.getWarehouseEntity();
         if (currentWarehouse != null) {
-            currentWarehouse.getItems().remove(item);
+            if (Hibernate.isInitialized(currentWarehouse.getItems())) {
+                currentWarehouse.getItems().remove(item);
+            }
             item.setWarehouseEntity(null);
             LOGGER.debug("Removed itemId={} from warehouseId={}", item.getId(),
                     currentWarehouse.getId());
@@ -206,67 +298,53 @@ public class WarehouseService {
         return false;
     }
 
-    private WarehouseEntity getOrCreateWarehouseForLocation(WarehouseLocationRequest warehouseLocationRequest,
-                                                            User user) {
-        String prefix = generateLocationPrefix(warehouseLocationRequest.getWarehouseLocation());
-        LOGGER.debug("Searching for warehouse with prefix={} and location={}", prefix,
-                warehouseLocationRequest.getWarehouseLocation());
-        return warehouseRepository.findByWarehouseLocation(warehouseLocationRequest.getWarehouseLocation())
+    private WarehouseEntity getOrCreateWarehouseForSite(WarehouseSite site, User user) {
+        LOGGER.debug("Searching for warehouse with prefix={} and siteId={}", site.getPrefix(), site.getId());
+        return warehouseRepository.findFirstBySiteId(site.getId())
                 .orElseGet(() -> {
-                    LOGGER.info("No warehouse found for location={}, creating new one",
-                            warehouseLocationRequest.getWarehouseLocation());
-                    WarehouseRequest warehouseRequest = WarehouseRequest.builder()
-                            .warehouseLocation(warehouseLocationRequest.getWarehouseLocation())
-                            .build();
-                    WarehouseEntity newWarehouse = buildWarehouseEntity(warehouseRequest, user, new ArrayList<>());
-                    LOGGER.info("Creating new warehouseId={} for location={}", newWarehouse.getId(),
-                            warehouseLocationRequest.getWarehouseLocation());
+                    LOGGER.info("No warehouse found for siteId={}, creating new one", site.getId());
+                    WarehouseEntity newWarehouse = buildWarehouseEntity(site, user, new ArrayList<>());
+                    LOGGER.info("Creating new warehouseId={} for siteId={}", newWarehouse.getId(), site.getId());
                     return newWarehouse;
                 });
     }
 
+    /**
+     * The owning side is {@link ItemEntity#getWarehouseEntity()}, so the link is flushed from the item alone.
+     * The inverse collection is only kept in step when it is already loaded; touching it otherwise would pull
+     * every item of the warehouse into the session just to move one of them.
+     */
     private WarehouseEntity addItemToWarehouse(ItemEntity item, WarehouseEntity warehouseEntity) {
         item.setWarehouseEntity(warehouseEntity);
-        warehouseEntity.getItems().add(item);
-        warehouseRepository.save(warehouseEntity);
+        if (Hibernate.isInitialized(warehouseEntity.getItems())) {
+            warehouseEntity.getItems().add(item);
+        }
+        if (warehouseEntity.getId() == null) {
+            warehouseRepository.save(warehouseEntity);
+        }
         LOGGER.debug("Assigned itemId={} to warehouseId={}", item.getId(), warehouseEntity.getId());
         return warehouseEntity;
     }
 
-    private Optional<String> findAvailableSpace(String locationPrefix,
-                                                String baseLocation,
-                                                Set<String> spaceUsage) {
-        char[] positions = {'A', 'B', 'C'};
-
-        for (int index = 1; index <= 50; index++) {
-            for (char position : positions) {
-                String locationCode = String.format("%s%s%02d%c", locationPrefix, baseLocation, index, position);
-                if (!spaceUsage.contains(locationCode)) {
-                    spaceUsage.add(locationCode);
-                    LOGGER.debug("Allocated new location code={} for baseLocation={}",
-                            locationCode, baseLocation);
-                    return Optional.of(locationCode);
-                }
-            }
+    private String generateBaseCodeSpaceType(WarehouseSpaceType warehouseSpaceType) {
+        if (warehouseSpaceType == null) {
+            throw new IllegalArgumentException("Unknown warehouse space type!");
         }
-        return Optional.empty();
+        return warehouseSpaceType.getCode();
     }
 
-    private String generateBaseCodeSpaceType(WarehouseSpaceType warehouseSpaceType) {
-        return switch (warehouseSpaceType) {
-            case SHELF -> "S";
-            case DRAWER -> "D";
-            case CONTAINER -> "C";
-            default -> throw new IllegalArgumentException("Unknown warehouse space type!");
-        };
+    private WarehouseSite resolveSite(WarehouseLocationRequest warehouseLocationRequest) {
+        return resolveSite(warehouseLocationRequest.getSiteId(), warehouseLocationRequest.getWarehouseLocation());
     }
 
-    private String generateLocationPrefix(WarehouseLocation warehouseLocation) {
-        return switch (warehouseLocation) {
-            case Warsaw -> "W";
-            case Krakow -> "K";
-            case Rzeszow -> "R";
-            default -> throw new IllegalArgumentException("Unknown location!");
-        };
+    private WarehouseSite resolveSite(Integer siteId, WarehouseLocation warehouseLocation) {
+        if (siteId != null) {
+            return warehouseSiteRegistry.findById(siteId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown warehouse site: " + siteId));
+        }
+        if (warehouseLocation == null) {
+            throw new IllegalArgumentException("Unknown location!");
+        }
+        return warehouseSiteRegistry.siteOf(warehouseLocation);
     }
-}
\ No newline at end of file
+}
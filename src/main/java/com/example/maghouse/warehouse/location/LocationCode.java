@@ -0,0 +1,143 @@
+package com.example.maghouse.warehouse.location;
+
+import com.example.maghouse.warehouse.spacetype.WarehouseSpaceType;
+
+/**
+ * A location code packed into one long (site id, space type key, bay, position) so it sorts in walk order.
+ */
+public final class LocationCode implements Comparable<LocationCode> {
+
+    public static final int MAX_BAY = (1 << 24) - 1;
+    public static final int MAX_SITE_ID = 4095;
+
+    private static final int BAY_SHIFT = 8;
+    private static final int SPACE_TYPE_SHIFT = 32;
+    private static final int SITE_SHIFT = 36;
+    static final long FIELD_MASK = 0xf;
+    static final char FIRST_POSITION = 'A';
+    static final int POSITIONS = 26;
+    private static final WarehouseSpaceType[] SPACE_TYPES = byKey(WarehouseSpaceType.values());
+
+    private final long value;
+
+    LocationCode(long value) {
+        this.value = value;
+    }
+
+    public static LocationCode of(int siteId, WarehouseSpaceType spaceType, int bay, char position) {
+        if (siteId < 0 || siteId > MAX_SITE_ID || spaceType == null || bay < 0 || bay > MAX_BAY
+                || position < FIRST_POSITION || position >= FIRST_POSITION + POSITIONS) {
+            throw new IllegalArgumentException("Invalid location: " + siteId + " " + spaceType + " " + bay + position);
+        }
+        return new LocationCode(pack(siteId, spaceType.getKey(), bay, position - FIRST_POSITION));
+    }
+
+    public static LocationCode fromValue(long value) {
+        long spaceType = (value >>> SPACE_TYPE_SHIFT) & FIELD_MASK;
+        if (value < 0 || value >>> SITE_SHIFT > MAX_SITE_ID || SPACE_TYPES[(int) spaceType] == null
+                || (value & 0xff) >= POSITIONS) {
+            throw new IllegalArgumentException("Invalid packed location code: " + value);
+        }
+        return new LocationCode(value);
+    }
+
+    public static Range rangeOf(int siteId) {
+        return new Range(new LocationCode(pack(siteId, 0, 0, 0)),
+                new LocationCode(pack(siteId, (int) FIELD_MASK, MAX_BAY, POSITIONS - 1)));
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * The warehouse_site id of this code, 0 when the code has no site.
+     */
+    public int getSiteId() {
+        return (int) (value >>> SITE_SHIFT);
+    }
+
+    public WarehouseSpaceType getSpaceType() {
+        return SPACE_TYPES[(int) ((value >>> SPACE_TYPE_SHIFT) & FIELD_MASK)];
+    }
+
+    public int getBay() {
+        return (int) ((value >>> BAY_SHIFT) & MAX_BAY);
+    }
+
+    public char getPosition() {
+        return (char) (FIRST_POSITION + (value & 0xff));
+    }
+
+    public LocationCode inSite(int siteId) {
+        if (siteId < 0 || siteId > MAX_SITE_ID) {
+            throw new IllegalArgumentException("Invalid site id: " + siteId);
+        }
+        return new LocationCode((value & ((1L << SITE_SHIFT) - 1)) | (long) siteId << SITE_SHIFT);
+    }
+
+    public LocationCode at(int bay, char position) {
+        return of(getSiteId(), getSpaceType(), bay, position);
+    }
+
+    @Override
+    public int compareTo(LocationCode other) {
+        return Long.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LocationCode code && code.value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    /**
+     * The code with its site id in place of the site prefix, e.g. "3:S12C"; LocationCodeFormat
+     * prints it with the prefix.
+     */
+    @Override
+    public String toString() {
+        int siteId = getSiteId();
+        return siteId == 0 ? withoutSite() : siteId + ":" + withoutSite();
+    }
+
+    /**
+     * The space type, bay and position part of the code, e.g. "S12C".
+     */
+    String withoutSite() {
+        StringBuilder code = new StringBuilder(10).append(getSpaceType().getCode());
+        int bay = getBay();
+        if (bay < 10) {
+            code.append('0');
+        }
+        return code.append(bay).append(getPosition()).toString();
+    }
+
+    static long pack(int site, int spaceType, int bay, int position) {
+        return (long) site << SITE_SHIFT | (long) spaceType << SPACE_TYPE_SHIFT | (long) bay << BAY_SHIFT | position;
+    }
+
+    static int spaceTypeIndex(char c) {
+        for (WarehouseSpaceType spaceType : WarehouseSpaceType.values()) {
+            if (spaceType.getCode().charAt(0) == c) {
+                return spaceType.getKey();
+            }
+        }
+        return -1;
+    }
+
+    private static WarehouseSpaceType[] byKey(WarehouseSpaceType[] spaceTypes) {
+        WarehouseSpaceType[] byKey = new WarehouseSpaceType[(int) FIELD_MASK + 1];
+        for (WarehouseSpaceType spaceType : spaceTypes) {
+            byKey[spaceType.getKey()] = spaceType;
+        }
+        return byKey;
+    }
+
+    public record Range(LocationCode first, LocationCode last) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.maghouse.warehouse.location;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class LocationCodeConverter implements AttributeConverter<LocationCode, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(LocationCode locationCode) {
+        return locationCode == null ? null : locationCode.getValue();
+    }
+
+    @Override
+    public LocationCode convertToEntityAttribute(Long value) {
+        return value == null ? null : LocationCode.fromValue(value);
+    }
+}
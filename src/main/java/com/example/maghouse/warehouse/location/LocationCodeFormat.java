@@ -0,0 +1,178 @@
+package com.example.maghouse.warehouse.location;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and prints location codes such as "RS01A" against one site id to prefix table; site id 0 is reserved
+ * for codes without a site.
+ */
+public final class LocationCodeFormat {
+
+    public static final long INVALID = -1L;
+
+    private final SitePrefixes sites;
+
+    private LocationCodeFormat(SitePrefixes sites) {
+        this.sites = sites;
+    }
+
+    public static LocationCodeFormat of(Map<Integer, String> prefixesById) {
+        return new LocationCodeFormat(SitePrefixes.of(prefixesById));
+    }
+
+    public static LocationCodeFormat builtIn() {
+        Map<Integer, String> prefixes = new HashMap<>();
+        for (WarehouseLocation site : WarehouseLocation.values()) {
+            prefixes.put(site.getSiteId(), site.getPrefix());
+        }
+        return of(prefixes);
+    }
+
+    /**
+     * The code as a LocationCode, or null when it does not follow the
+     * [site]spaceType bay position layout.
+     */
+    public LocationCode parse(CharSequence code) {
+        long value = encode(code);
+        return value == INVALID ? null : new LocationCode(value);
+    }
+
+    /**
+     * The packed value of a code, or {@link #INVALID}.
+     */
+    public long encode(CharSequence code) {
+        if (code == null || code.length() < 4) {
+            return INVALID;
+        }
+        int last = code.length() - 1;
+        int firstDigit = 0;
+        while (firstDigit < last && !isDigit(code.charAt(firstDigit))) {
+            firstDigit++;
+        }
+        if (firstDigit == 0 || firstDigit == last) {
+            return INVALID;
+        }
+        int spaceType = LocationCode.spaceTypeIndex(code.charAt(firstDigit - 1));
+        int site = firstDigit == 1 ? 0 : sites.idOf(code, firstDigit - 1);
+        if (spaceType < 0 || site < 0) {
+            return INVALID;
+        }
+        int bay = 0;
+        for (int i = firstDigit; i < last; i++) {
+            char digit = code.charAt(i);
+            if (!isDigit(digit) || bay > LocationCode.MAX_BAY / 10) {
+                return INVALID;
+            }
+            bay = bay * 10 + (digit - '0');
+        }
+        int position = code.charAt(last) - LocationCode.FIRST_POSITION;
+        if (bay > LocationCode.MAX_BAY || position < 0 || position >= LocationCode.POSITIONS) {
+            return INVALID;
+        }
+        return LocationCode.pack(site, spaceType, bay, position);
+    }
+
+    /**
+     * First and last code under a prefix made of a site prefix and/or space type letter ("W",
+     * "WS", "S"); null for any other prefix. A space type alone means codes without a site.
+     */
+    public LocationCode.Range rangeOf(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return null;
+        }
+        int length = prefix.length();
+        int spaceType = LocationCode.spaceTypeIndex(prefix.charAt(length - 1));
+        if (spaceType >= 0) {
+            int site = length == 1 ? 0 : sites.idOf(prefix, length - 1);
+            if (site >= 0) {
+                return new LocationCode.Range(
+                        new LocationCode(LocationCode.pack(site, spaceType, 0, 0)),
+                        new LocationCode(LocationCode.pack(site, spaceType, LocationCode.MAX_BAY,
+                                LocationCode.POSITIONS - 1)));
+            }
+        }
+        int site = sites.idOf(prefix, length);
+        return site > 0 ? LocationCode.rangeOf(site) : null;
+    }
+
+    public String format(LocationCode code) {
+        int siteId = code.getSiteId();
+        if (siteId == 0) {
+            return code.withoutSite();
+        }
+        String prefix = sites.prefixOf(siteId);
+        if (prefix == null) {
+            throw new IllegalStateException("Unknown warehouse site id: " + siteId);
+        }
+        return prefix + code.withoutSite();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Open addressing table from a prefix packed one byte per character (up to 8) to its site id.
+     */
+    private record SitePrefixes(long[] keys, int[] ids, String[] prefixes) {
+
+        static SitePrefixes of(Map<Integer, String> prefixesById) {
+            int capacity = Integer.highestOneBit(Math.max(prefixesById.size(), 1) * 4);
+            long[] keys = new long[capacity];
+            int[] ids = new int[capacity];
+            int maxId = prefixesById.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+            String[] prefixes = new String[maxId + 1];
+            prefixesById.forEach((id, prefix) -> {
+                long key = pack(prefix, prefix.length());
+                if (id <= 0 || id > LocationCode.MAX_SITE_ID || key == 0) {
+                    throw new IllegalArgumentException("Invalid warehouse site: " + id + " " + prefix);
+                }
+                int slot = slot(key, capacity);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                keys[slot] = key;
+                ids[slot] = id;
+                prefixes[id] = prefix;
+            });
+            return new SitePrefixes(keys, ids, prefixes);
+        }
+
+        int idOf(CharSequence code, int length) {
+            long key = pack(code, length);
+            if (key == 0) {
+                return -1;
+            }
+            for (int slot = slot(key, keys.length); keys[slot] != 0; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == key) {
+                    return ids[slot];
+                }
+            }
+            return -1;
+        }
+
+        String prefixOf(int id) {
+            return id < prefixes.length ? prefixes[id] : null;
+        }
+
+        private static long pack(CharSequence prefix, int length) {
+            if (length == 0 || length > Long.BYTES) {
+                return 0;
+            }
+            long key = 0;
+            for (int i = 0; i < length; i++) {
+                char c = prefix.charAt(i);
+                if (c == 0 || c > 0xff) {
+                    return 0;
+                }
+                key = key << Byte.SIZE | c;
+            }
+            return key;
+        }
+
+        private static int slot(long key, int capacity) {
+            return Long.hashCode(key * 0x9E3779B97F4A7C15L) & (capacity - 1);
+        }
+    }
+}
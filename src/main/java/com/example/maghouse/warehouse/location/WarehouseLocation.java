@@ -1,5 +1,19 @@
 package com.example.maghouse.warehouse.location;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The built-in sites; siteId is the row id in warehouse_site and is packed into location_key, so it must never change.
+ */
+@RequiredArgsConstructor
 public enum WarehouseLocation {
-    Warsaw, Krakow, Rzeszow
+    Warsaw("W", 1),
+    Krakow("K", 2),
+    Rzeszow("R", 3);
+
+    @Getter
+    private final String prefix;
+    @Getter
+    private final int siteId;
 }
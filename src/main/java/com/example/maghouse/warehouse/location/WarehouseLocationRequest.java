@@ -9,4 +9,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class WarehouseLocationRequest {
     private WarehouseLocation warehouseLocation;
+    private Integer siteId;
+
+    public WarehouseLocationRequest(WarehouseLocation warehouseLocation) {
+        this(warehouseLocation, null);
+    }
 }
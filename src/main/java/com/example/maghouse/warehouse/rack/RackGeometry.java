@@ -0,0 +1,39 @@
+package com.example.maghouse.warehouse.rack;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aisles, levels and positions of one storage area; bay = (aisle - 1) * levels + level.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RackGeometry {
+
+    public static final int MAX_POSITIONS = 26;
+
+    private int aisles;
+    private int levels;
+    private int positions;
+
+    public int bays() {
+        return aisles * levels;
+    }
+
+    public int slotCount() {
+        return Math.multiplyExact(bays(), positions);
+    }
+
+    public void validate() {
+        if (aisles <= 0 || levels <= 0 || positions <= 0) {
+            throw new IllegalArgumentException("Rack geometry values must be positive: " + this);
+        }
+        if (positions > MAX_POSITIONS) {
+            throw new IllegalArgumentException("Rack geometry supports at most " + MAX_POSITIONS
+                    + " positions per bay: " + this);
+        }
+        slotCount();
+    }
+}
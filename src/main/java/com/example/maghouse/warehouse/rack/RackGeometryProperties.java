@@ -0,0 +1,21 @@
+package com.example.maghouse.warehouse.rack;
+
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import com.example.maghouse.warehouse.spacetype.WarehouseSpaceType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "maghouse.warehouse.rack")
+public class RackGeometryProperties {
+
+    private RackGeometry defaults = new RackGeometry(50, 1, 3);
+    private Map<WarehouseSpaceType, RackGeometry> spaceTypes = new EnumMap<>(WarehouseSpaceType.class);
+    private Map<WarehouseLocation, Map<WarehouseSpaceType, RackGeometry>> locations =
+            new EnumMap<>(WarehouseLocation.class);
+}
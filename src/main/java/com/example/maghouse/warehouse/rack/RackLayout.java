@@ -0,0 +1,49 @@
+package com.example.maghouse.warehouse.rack;
+
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import com.example.maghouse.warehouse.spacetype.WarehouseSpaceType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rack geometry per location prefix, falling back to the space type geometry and then the defaults.
+ */
+@Component
+@Slf4j
+public class RackLayout {
+
+    private final RackGeometry defaults;
+    private final Map<String, RackGeometry> geometryByPrefix = new HashMap<>();
+
+    public RackLayout(RackGeometryProperties properties) {
+        this.defaults = properties.getDefaults();
+        defaults.validate();
+        for (WarehouseSpaceType spaceType : WarehouseSpaceType.values()) {
+            RackGeometry spaceTypeGeometry = properties.getSpaceTypes().getOrDefault(spaceType, defaults);
+            register(spaceType.getCode(), spaceTypeGeometry);
+            for (WarehouseLocation location : WarehouseLocation.values()) {
+                RackGeometry locationGeometry = properties.getLocations()
+                        .getOrDefault(location, Map.of())
+                        .getOrDefault(spaceType, spaceTypeGeometry);
+                register(location.getPrefix() + spaceType.getCode(), locationGeometry);
+            }
+        }
+    }
+
+    public RackGeometry geometryFor(String prefix) {
+        RackGeometry geometry = geometryByPrefix.get(prefix);
+        if (geometry == null && prefix != null && prefix.length() > 1) {
+            geometry = geometryByPrefix.get(prefix.substring(prefix.length() - 1));
+        }
+        return geometry == null ? defaults : geometry;
+    }
+
+    private void register(String prefix, RackGeometry geometry) {
+        geometry.validate();
+        geometryByPrefix.put(prefix, geometry);
+        log.debug("Rack geometry for prefix={}: {} slots ({})", prefix, geometry.slotCount(), geometry);
+    }
+}
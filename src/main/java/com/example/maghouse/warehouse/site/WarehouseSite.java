@@ -0,0 +1,12 @@
+package com.example.maghouse.warehouse.site;
+
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import lombok.Value;
+
+@Value
+public class WarehouseSite {
+    int id;
+    String prefix;
+    String name;
+    WarehouseLocation warehouseLocation;
+}
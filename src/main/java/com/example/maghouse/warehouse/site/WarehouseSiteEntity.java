@@ -0,0 +1,27 @@
+package com.example.maghouse.warehouse.site;
+
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "warehouse_site")
+public class WarehouseSiteEntity {
+
+    @Id
+    private Integer id;
+    @Column(nullable = false, unique = true, length = 8)
+    private String prefix;
+    @Column(nullable = false, length = 50)
+    private String name;
+    @Enumerated(EnumType.STRING)
+    private WarehouseLocation warehouseLocation;
+    private boolean active;
+}
@@ -0,0 +1,122 @@
+package com.example.maghouse.warehouse.site;
+
+import com.example.maghouse.warehouse.location.LocationCode;
+import com.example.maghouse.warehouse.location.LocationCodeFormat;
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Active warehouse sites from the warehouse_site table, keyed by id and prefix; built-in sites are always known.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WarehouseSiteRegistry {
+
+    private final WarehouseSiteRepository warehouseSiteRepository;
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+    private volatile LocationCodeFormat locationCodeFormat = LocationCodeFormat.builtIn();
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${maghouse.warehouse.sites.refresh-interval:PT5M}",
+            initialDelayString = "${maghouse.warehouse.sites.refresh-interval:PT5M}")
+    public void refresh() {
+        List<WarehouseSiteEntity> entities = warehouseSiteRepository.findAll();
+        Snapshot all = Snapshot.build(entities.stream().map(WarehouseSiteRegistry::toSite).toList());
+        snapshot = Snapshot.build(entities.stream()
+                .filter(WarehouseSiteEntity::isActive)
+                .map(WarehouseSiteRegistry::toSite)
+                .toList());
+        Map<Integer, String> prefixesById = new HashMap<>();
+        all.byPrefix().values().forEach(site -> prefixesById.put(site.getId(), site.getPrefix()));
+        locationCodeFormat = LocationCodeFormat.of(prefixesById);
+        log.debug("Loaded {} warehouse sites", snapshot.byPrefix().size());
+    }
+
+    public Optional<WarehouseSite> findByPrefix(String prefix) {
+        return Optional.ofNullable(prefix == null ? null : snapshot.byPrefix().get(normalize(prefix)));
+    }
+
+    public Optional<WarehouseSite> findById(int id) {
+        WarehouseSite[] byId = snapshot.byId();
+        return Optional.ofNullable(id >= 0 && id < byId.length ? byId[id] : null);
+    }
+
+    public WarehouseSite siteOf(WarehouseLocation warehouseLocation) {
+        return snapshot.byLocation()[warehouseLocation.ordinal()];
+    }
+
+    /**
+     * Location code format for every known site, inactive ones included.
+     */
+    public LocationCodeFormat getLocationCodeFormat() {
+        return locationCodeFormat;
+    }
+
+    public Optional<WarehouseSite> matchLocationCode(String locationCode) {
+        LocationCode code = locationCode == null ? null : locationCodeFormat.parse(normalize(locationCode));
+        return code == null || code.getSiteId() == 0 ? Optional.empty() : findById(code.getSiteId());
+    }
+
+    public List<WarehouseSite> getSites() {
+        return List.copyOf(snapshot.byPrefix().values());
+    }
+
+    private static WarehouseSite toSite(WarehouseSiteEntity entity) {
+        return new WarehouseSite(entity.getId(), normalize(entity.getPrefix()), entity.getName(),
+                entity.getWarehouseLocation());
+    }
+
+    private static String normalize(String prefix) {
+        return prefix.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record Snapshot(Map<String, WarehouseSite> byPrefix, WarehouseSite[] byId,
+                            WarehouseSite[] byLocation) {
+
+        static Snapshot build(List<WarehouseSite> sites) {
+            Map<String, WarehouseSite> byPrefix = new HashMap<>();
+            WarehouseSite[] byLocation = new WarehouseSite[WarehouseLocation.values().length];
+            List<WarehouseSite> all = new ArrayList<>(sites);
+            for (WarehouseSite site : sites) {
+                if (site.getWarehouseLocation() != null) {
+                    byLocation[site.getWarehouseLocation().ordinal()] = site;
+                }
+            }
+            for (WarehouseLocation location : WarehouseLocation.values()) {
+                if (byLocation[location.ordinal()] == null) {
+                    WarehouseSite builtIn = new WarehouseSite(location.getSiteId(), location.getPrefix(),
+                            location.name(), location);
+                    byLocation[location.ordinal()] = builtIn;
+                    all.add(builtIn);
+                }
+            }
+            Map<Integer, WarehouseSite> byIdMap = new HashMap<>();
+            for (WarehouseSite site : all) {
+                if (site.getId() <= 0 || site.getId() > LocationCode.MAX_SITE_ID
+                        || byIdMap.containsKey(site.getId()) || byPrefix.containsKey(site.getPrefix())) {
+                    log.warn("Ignoring warehouse site {} with id={} prefix={}", site.getName(), site.getId(),
+                            site.getPrefix());
+                    continue;
+                }
+                byPrefix.put(site.getPrefix(), site);
+                byIdMap.put(site.getId(), site);
+            }
+            WarehouseSite[] byId = new WarehouseSite[byIdMap.keySet().stream().mapToInt(Integer::intValue).max()
+                    .orElse(0) + 1];
+            byIdMap.forEach((id, site) -> byId[id] = site);
+            return new Snapshot(Map.copyOf(byPrefix), byId, byLocation);
+        }
+    }
+}
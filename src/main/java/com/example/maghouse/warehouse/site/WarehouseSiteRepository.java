@@ -0,0 +1,8 @@
+package com.example.maghouse.warehouse.site;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WarehouseSiteRepository extends JpaRepository<WarehouseSiteEntity, Integer> {
+}
@@ -0,0 +1,282 @@
+package com.example.maghouse.warehouse.slot;
+
+import com.example.maghouse.item.ItemRepository;
+import com.example.maghouse.warehouse.location.LocationCode;
+import com.example.maghouse.warehouse.location.LocationCodeFormat;
+import com.example.maghouse.warehouse.rack.RackGeometry;
+import com.example.maghouse.warehouse.rack.RackLayout;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Occupancy bitmaps per location prefix; only a hint, location_slot decides which codes are taken.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LocationSlotAllocator {
+
+    private static final char FIRST_POSITION = 'A';
+
+    private final ItemRepository itemRepository;
+    private final LocationSlotRepository locationSlotRepository;
+    private final RackLayout rackLayout;
+    private final WarehouseSiteRegistry warehouseSiteRegistry;
+    private final Map<String, SlotBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        Map<String, SlotBitmap> loaded = new HashMap<>();
+        int occupied = markAll(loaded, itemRepository.findAllUsedLocationCodes())
+                + markAll(loaded, locationSlotRepository.findAllLocationCodes());
+        bitmaps.clear();
+        bitmaps.putAll(loaded);
+        log.info("Loaded {} occupied location codes into {} slot bitmaps", occupied, bitmaps.size());
+    }
+
+    @Scheduled(fixedDelayString = "${maghouse.warehouse.slots.refresh-interval:PT5M}",
+            initialDelayString = "${maghouse.warehouse.slots.refresh-interval:PT5M}")
+    public void refresh() {
+        Map<String, SlotBitmap> loaded = new HashMap<>();
+        int occupied = markAll(loaded, locationSlotRepository.findAllLocationCodes());
+        bitmaps.keySet().retainAll(loaded.keySet());
+        bitmaps.putAll(loaded);
+        log.debug("Refreshed {} occupied location codes into {} slot bitmaps", occupied, bitmaps.size());
+    }
+
+    public Optional<String> allocate(String prefix, Long itemId) {
+        Optional<String> locationCode = allocateFrom(bitmapFor(prefix), prefix, itemId);
+        if (locationCode.isEmpty()) {
+            locationCode = allocateFrom(reload(prefix), prefix, itemId);
+        }
+        if (locationCode.isEmpty()) {
+            log.warn("No free slot left for prefix={}", prefix);
+        }
+        return locationCode;
+    }
+
+    /**
+     * Allocates one code per item id, returned in the same order, from a single scan of the
+     * bitmap and a single batched claim. Codes claimed elsewhere in the meantime are retried
+     * with the next free slots. Empty when the prefix runs out of slots for the whole batch.
+     */
+    public Optional<List<String>> allocateAll(String prefix, List<Long> itemIds) {
+        SlotBitmap bitmap = bitmapFor(prefix);
+        boolean refreshed = false;
+        RackGeometry geometry = rackLayout.geometryFor(prefix);
+        String[] locationCodes = new String[itemIds.size()];
+        List<Integer> pending = IntStream.range(0, itemIds.size()).boxed().toList();
+        while (!pending.isEmpty()) {
+            int[] slots = bitmap.allocate(pending.size());
+            if (slots.length == 0 && !refreshed) {
+                bitmap = reload(prefix);
+                refreshed = true;
+                continue;
+            }
+            if (slots.length == 0) {
+                log.warn("No free slot left for prefix={}, {} items not placed", prefix, pending.size());
+                return Optional.empty();
+            }
+            SlotBitmap allocatedFrom = bitmap;
+            onRollback(() -> {
+                for (int slot : slots) {
+                    allocatedFrom.release(slot);
+                }
+            });
+            List<String> codes = new ArrayList<>(slots.length);
+            List<Long> owners = new ArrayList<>(slots.length);
+            for (int i = 0; i < slots.length; i++) {
+                codes.add(encode(prefix, slots[i], geometry));
+                owners.add(itemIds.get(pending.get(i)));
+            }
+            int[] claimed = locationSlotRepository.claimAll(codes, owners);
+            List<Integer> retry = new ArrayList<>(pending.subList(slots.length, pending.size()));
+            for (int i = 0; i < slots.length; i++) {
+                if (claimed[i] != 0) {
+                    locationCodes[pending.get(i)] = codes.get(i);
+                } else {
+                    log.debug("Location code={} is already claimed, trying next slot", codes.get(i));
+                    retry.add(pending.get(i));
+                }
+            }
+            pending = retry;
+        }
+        log.debug("Allocated {} location codes for prefix={}", locationCodes.length, prefix);
+        return Optional.of(Arrays.asList(locationCodes));
+    }
+
+    /**
+     * Moves the item to preferredLocationCode and returns it, failing when that slot is already
+     * occupied.
+     */
+    public String relocate(String fromLocationCode, String preferredLocationCode, Long itemId) {
+        if (preferredLocationCode.equals(fromLocationCode)) {
+            return fromLocationCode;
+        }
+        int prefixLength = prefixLength(preferredLocationCode);
+        int slot = decodeSlot(preferredLocationCode, prefixLength);
+        boolean claimed;
+        if (slot >= 0) {
+            SlotBitmap bitmap = bitmapFor(preferredLocationCode.substring(0, prefixLength));
+            claimed = bitmap.occupy(slot) && locationSlotRepository.claim(preferredLocationCode, itemId) == 1;
+            if (claimed) {
+                onRollback(() -> bitmap.release(slot));
+            }
+        } else {
+            claimed = locationSlotRepository.claim(preferredLocationCode, itemId) == 1;
+        }
+        if (!claimed) {
+            log.warn("Location code={} is already occupied, cannot move itemId={}", preferredLocationCode, itemId);
+            throw new IllegalArgumentException("Location code " + preferredLocationCode + " is already occupied!");
+        }
+        release(fromLocationCode);
+        return preferredLocationCode;
+    }
+
+    public void release(String locationCode) {
+        if (locationCode == null) {
+            return;
+        }
+        locationSlotRepository.release(locationCode);
+        int prefixLength = prefixLength(locationCode);
+        int slot = decodeSlot(locationCode, prefixLength);
+        if (slot >= 0) {
+            SlotBitmap bitmap = bitmapFor(locationCode.substring(0, prefixLength));
+            afterCommit(() -> bitmap.release(slot));
+        }
+    }
+
+    boolean isOccupied(String locationCode) {
+        int prefixLength = prefixLength(locationCode);
+        int slot = decodeSlot(locationCode, prefixLength);
+        return slot >= 0 && bitmapFor(locationCode.substring(0, prefixLength)).isOccupied(slot);
+    }
+
+    public int capacity(String prefix) {
+        return rackLayout.geometryFor(prefix).slotCount();
+    }
+
+    private Optional<String> allocateFrom(SlotBitmap bitmap, String prefix, Long itemId) {
+        RackGeometry geometry = rackLayout.geometryFor(prefix);
+        for (int slot = bitmap.allocate(); slot >= 0; slot = bitmap.allocate()) {
+            int allocated = slot;
+            onRollback(() -> bitmap.release(allocated));
+            String locationCode = encode(prefix, slot, geometry);
+            if (locationSlotRepository.claim(locationCode, itemId) == 1) {
+                log.debug("Allocated location code={} for prefix={}", locationCode, prefix);
+                return Optional.of(locationCode);
+            }
+            log.debug("Location code={} is already claimed, trying next slot", locationCode);
+        }
+        return Optional.empty();
+    }
+
+    private SlotBitmap reload(String prefix) {
+        SlotBitmap bitmap = new SlotBitmap(capacity(prefix));
+        for (String locationCode : locationSlotRepository.findLocationCodesStartingWith(prefix)) {
+            if (prefixLength(locationCode) == prefix.length()) {
+                bitmap.occupy(decodeSlot(locationCode, prefix.length()));
+            }
+        }
+        bitmaps.put(prefix, bitmap);
+        log.info("Reloaded slot bitmap for prefix={} with {} occupied slots", prefix, bitmap.usedSlots());
+        return bitmap;
+    }
+
+    private int markAll(Map<String, SlotBitmap> into, List<String> locationCodes) {
+        int marked = 0;
+        for (String locationCode : locationCodes) {
+            int prefixLength = prefixLength(locationCode);
+            int slot = decodeSlot(locationCode, prefixLength);
+            if (slot >= 0 && into.computeIfAbsent(locationCode.substring(0, prefixLength),
+                    key -> new SlotBitmap(capacity(key))).occupy(slot)) {
+                marked++;
+            }
+        }
+        return marked;
+    }
+
+    private SlotBitmap bitmapFor(String prefix) {
+        return bitmaps.computeIfAbsent(prefix, key -> new SlotBitmap(capacity(key)));
+    }
+
+    private String encode(String prefix, int slot, RackGeometry geometry) {
+        LocationCodeFormat format = warehouseSiteRegistry.getLocationCodeFormat();
+        LocationCode.Range range = format.rangeOf(prefix);
+        if (range == null) {
+            throw new IllegalArgumentException("Unknown location prefix: " + prefix);
+        }
+        return format.format(range.first()
+                .at(slot / geometry.getPositions() + 1, (char) (FIRST_POSITION + slot % geometry.getPositions())));
+    }
+
+    private int decodeSlot(String locationCode, int prefixLength) {
+        if (prefixLength < 0) {
+            return -1;
+        }
+        LocationCode code = warehouseSiteRegistry.getLocationCodeFormat().parse(locationCode);
+        if (code == null) {
+            return -1;
+        }
+        RackGeometry geometry = rackLayout.geometryFor(locationCode.substring(0, prefixLength));
+        int bay = code.getBay();
+        int position = code.getPosition() - FIRST_POSITION;
+        if (bay < 1 || bay > geometry.bays() || position >= geometry.getPositions()) {
+            return -1;
+        }
+        return (bay - 1) * geometry.getPositions() + position;
+    }
+
+    static int prefixLength(String locationCode) {
+        if (locationCode == null) {
+            return -1;
+        }
+        for (int i = 0; i < locationCode.length(); i++) {
+            if (Character.isDigit(locationCode.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void onRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.maghouse.warehouse.slot;
+
+import java.util.List;
+
+public interface LocationSlotBatchRepository {
+
+    /**
+     * Claims every location code for the item at the same index in a single JDBC batch.
+     * Returns the per-row update count: 0 means the code was already claimed, anything else
+     * (including Statement.SUCCESS_NO_INFO) means it was inserted.
+     */
+    int[] claimAll(List<String> locationCodes, List<Long> itemIds);
+}
@@ -0,0 +1,46 @@
+package com.example.maghouse.warehouse.slot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class LocationSlotBatchRepositoryImpl implements LocationSlotBatchRepository {
+
+    private static final String CLAIM_SQL = "INSERT INTO location_slot (location_code, item_id) VALUES (?, ?) " +
+            "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] claimAll(List<String> locationCodes, List<Long> itemIds) {
+        if (locationCodes.size() != itemIds.size()) {
+            throw new IllegalArgumentException("Every location code needs exactly one item!");
+        }
+        if (locationCodes.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(CLAIM_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, locationCodes.get(i));
+                Long itemId = itemIds.get(i);
+                if (itemId == null) {
+                    ps.setNull(2, Types.BIGINT);
+                } else {
+                    ps.setLong(2, itemId);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return locationCodes.size();
+            }
+        });
+    }
+}
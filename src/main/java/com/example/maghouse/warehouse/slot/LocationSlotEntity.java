@@ -0,0 +1,24 @@
+package com.example.maghouse.warehouse.slot;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "location_slot")
+public class LocationSlotEntity {
+
+    @Id
+    @Size(max = 50)
+    private String locationCode;
+    private Long itemId;
+}
@@ -0,0 +1,28 @@
+package com.example.maghouse.warehouse.slot;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LocationSlotRepository extends JpaRepository<LocationSlotEntity, String>, LocationSlotBatchRepository {
+
+    @Modifying
+    @Query(value = "INSERT INTO location_slot (location_code, item_id) VALUES (:locationCode, :itemId) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int claim(@Param("locationCode") String locationCode, @Param("itemId") Long itemId);
+
+    @Query("SELECT s.locationCode FROM LocationSlotEntity s")
+    List<String> findAllLocationCodes();
+
+    @Query("SELECT s.locationCode FROM LocationSlotEntity s WHERE s.locationCode LIKE CONCAT(:prefix, '%')")
+    List<String> findLocationCodesStartingWith(@Param("prefix") String prefix);
+
+    @Modifying
+    @Query("DELETE FROM LocationSlotEntity s WHERE s.locationCode = :locationCode")
+    int release(@Param("locationCode") String locationCode);
+}
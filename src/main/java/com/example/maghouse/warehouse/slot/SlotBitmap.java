@@ -0,0 +1,108 @@
+package com.example.maghouse.warehouse.slot;
+
+/**
+ * Occupancy bitmap for the slots of one location prefix, with a summary of full words for fast free-slot search.
+ */
+class SlotBitmap {
+
+    private final int capacity;
+    private final long[] words;
+    private final long[] fullWords;
+    private int used;
+
+    SlotBitmap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slot capacity must be positive!");
+        }
+        this.capacity = capacity;
+        this.words = new long[(capacity + 63) >>> 6];
+        this.fullWords = new long[(words.length + 63) >>> 6];
+
+        int tailBits = capacity & 63;
+        if (tailBits != 0) {
+            words[words.length - 1] = -1L << tailBits;
+        }
+        int tailWords = words.length & 63;
+        if (tailWords != 0) {
+            fullWords[fullWords.length - 1] = -1L << tailWords;
+        }
+    }
+
+    synchronized int allocate() {
+        for (int summary = 0; summary < fullWords.length; summary++) {
+            long notFull = ~fullWords[summary];
+            if (notFull != 0) {
+                int word = (summary << 6) + Long.numberOfTrailingZeros(notFull);
+                int slot = (word << 6) + Long.numberOfTrailingZeros(~words[word]);
+                set(slot);
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Takes up to {@code count} of the lowest free slots in one forward scan of the summary.
+     */
+    synchronized int[] allocate(int count) {
+        int[] slots = new int[Math.min(count, capacity - used)];
+        int filled = 0;
+        int summary = 0;
+        while (filled < slots.length) {
+            long notFull = ~fullWords[summary];
+            if (notFull == 0) {
+                summary++;
+                continue;
+            }
+            int word = (summary << 6) + Long.numberOfTrailingZeros(notFull);
+            int slot = (word << 6) + Long.numberOfTrailingZeros(~words[word]);
+            set(slot);
+            slots[filled++] = slot;
+        }
+        return slots;
+    }
+
+    synchronized boolean occupy(int slot) {
+        if (slot < 0 || slot >= capacity || isSet(slot)) {
+            return false;
+        }
+        set(slot);
+        return true;
+    }
+
+    synchronized boolean release(int slot) {
+        if (slot < 0 || slot >= capacity || !isSet(slot)) {
+            return false;
+        }
+        int word = slot >>> 6;
+        words[word] &= ~(1L << slot);
+        fullWords[word >>> 6] &= ~(1L << word);
+        used--;
+        return true;
+    }
+
+    synchronized boolean isOccupied(int slot) {
+        return slot >= 0 && slot < capacity && isSet(slot);
+    }
+
+    synchronized int usedSlots() {
+        return used;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    private boolean isSet(int slot) {
+        return (words[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void set(int slot) {
+        int word = slot >>> 6;
+        words[word] |= 1L << slot;
+        if (words[word] == -1L) {
+            fullWords[word >>> 6] |= 1L << word;
+        }
+        used++;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.maghouse.warehouse.spacetype;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemSpaceTypeRequest {
+    private Long itemId;
+    private WarehouseSpaceType warehouseSpaceType;
+}
@@ -1,5 +1,19 @@
 package com.example.maghouse.warehouse.spacetype;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Space types; key is packed into location_key, so it must never change.
+ */
+@RequiredArgsConstructor
 public enum WarehouseSpaceType {
-    SHELF, DRAWER, CONTAINER
+    SHELF("S", 0),
+    DRAWER("D", 1),
+    CONTAINER("C", 2);
+
+    @Getter
+    private final String code;
+    @Getter
+    private final int key;
 }
@@ -2,12 +2,14 @@ package com.example.maghouse.auth;
 
 import com.example.maghouse.auth.login.LoginRequest;
 import com.example.maghouse.auth.login.jwt.JwtService;
+import com.example.maghouse.auth.login.jwt.ValidatedToken;
 import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.token.TokenResponse;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.auth.registration.user.UserRequest;
 import com.example.maghouse.auth.registration.user.UserService;
 import com.example.maghouse.mapper.TokenResponseToTokenMapper;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +26,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -155,14 +159,12 @@ public class AuthServiceIntegrationTest {
         String authHeader = "Bearer " + refreshToken;
 
         when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn(authHeader);
-        when(jwtService.extractUserEmail(refreshToken)).thenReturn("john.doe@example.com");
-        when(userService.findByEmail("john.doe@example.com")).thenReturn(user);
-        when(jwtService.isValidToken(refreshToken, user)).thenReturn(false);
+        when(jwtService.validate(refreshToken)).thenReturn(Optional.empty());
 
         authService.refreshToken(request, response);
 
-        verify(jwtService, times(1)).extractUserEmail(refreshToken);
-        verify(jwtService, times(1)).isValidToken(refreshToken, user);
+        verify(jwtService, times(1)).validate(refreshToken);
+        verify(userService, never()).findByEmail(anyString());
         verify(jwtService, never()).getToken(any());
     }
 
@@ -172,8 +174,7 @@ public class AuthServiceIntegrationTest {
 
         authService.refreshToken(request, mock(HttpServletResponse.class));
 
-        verify(jwtService, never()).extractUserEmail(anyString());
-        verify(jwtService, never()).isValidToken(anyString(), any(User.class));
+        verify(jwtService, never()).validate(anyString());
     }
 
     @Test
@@ -181,15 +182,16 @@ public class AuthServiceIntegrationTest {
         String refreshToken = "invalid_refresh_token";
         String userEmail = "john.doe@example.com";
 
-        when(jwtService.extractUserEmail(refreshToken)).thenReturn(userEmail);
+        when(jwtService.validate(refreshToken)).thenReturn(Optional.of(new ValidatedToken(Jwts.claims()
+                .setSubject(userEmail)
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000)))));
         when(userService.findByEmail(userEmail)).thenReturn(user);
-        when(jwtService.isValidToken(refreshToken, user)).thenReturn(false);
 
         when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + refreshToken);
 
         authService.refreshToken(request, response);
 
-        verify(jwtService, times(1)).isValidToken(refreshToken, user);
+        verify(jwtService, times(1)).validate(refreshToken);
         verify(jwtService, never()).getToken(any());
     }
 }
@@ -2,6 +2,7 @@ package com.example.maghouse.auth;
 
 import com.example.maghouse.auth.login.LoginRequest;
 import com.example.maghouse.auth.login.jwt.JwtService;
+import com.example.maghouse.auth.login.jwt.ValidatedToken;
 import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.token.Token;
 import com.example.maghouse.auth.registration.token.TokenRepository;
@@ -10,6 +11,7 @@ import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.auth.registration.user.UserRequest;
 import com.example.maghouse.auth.registration.user.UserService;
 import com.example.maghouse.mapper.TokenResponseToTokenMapper;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -24,6 +26,8 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -123,9 +127,8 @@ public class AuthServiceTest {
         String jwtToken = "jwt-token";
 
         given(request.getHeader(HttpHeaders.AUTHORIZATION)).willReturn("Bearer " + refreshToken);
-        given(jwtService.extractUserEmail(refreshToken)).willReturn(user.getEmail());
+        given(jwtService.validate(refreshToken)).willReturn(Optional.of(validatedToken(user.getEmail(), 60_000)));
         given(userService.findByEmail(user.getEmail())).willReturn(user);
-        given(jwtService.isValidToken(refreshToken, user)).willReturn(true);
         given(jwtService.getToken(user)).willReturn(jwtToken);
         given(tokenResponseToTokenMapper.map(jwtToken, refreshToken))
                 .willReturn(new TokenResponse(jwtToken, refreshToken));
@@ -137,10 +140,33 @@ public class AuthServiceTest {
 
         verify(tokenRepository).save(any(Token.class));
         verify(jwtService).getToken(user);
-        verify(jwtService).isValidToken(refreshToken, user);
+        verify(jwtService, times(2)).validate(refreshToken);
         verify(response).getOutputStream();
     }
 
+    @Test
+    void shouldNotRefreshWhenTokenWasIssuedForAnotherUser() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        String refreshToken = "refresh-token";
+        User otherUser = User.builder().id(2L).email("other@maghouse.com").role(Role.USER).build();
+
+        given(request.getHeader(HttpHeaders.AUTHORIZATION)).willReturn("Bearer " + refreshToken);
+        given(jwtService.validate(refreshToken)).willReturn(Optional.of(validatedToken(user.getEmail(), 60_000)));
+        given(userService.findByEmail(user.getEmail())).willReturn(otherUser);
+
+        authService.refreshToken(request, response);
+
+        verify(jwtService, never()).getToken(any());
+        verify(tokenRepository, never()).save(any(Token.class));
+    }
+
+    private static ValidatedToken validatedToken(String subject, long validForMillis) {
+        return new ValidatedToken(Jwts.claims()
+                .setSubject(subject)
+                .setExpiration(new Date(System.currentTimeMillis() + validForMillis)));
+    }
+
     @Test
     void shouldThrowExceptionWhenInvalidCredentialsAreProvidedDuringLogin() {
         LoginRequest loginRequest = new LoginRequest("invalid@example.com", "wrong-password");
@@ -3,7 +3,9 @@ package com.example.maghouse.auth.controller;
 import com.example.maghouse.auth.AuthService;
 import com.example.maghouse.auth.exception.GlobalExceptionHandler;
 import com.example.maghouse.auth.login.LoginRequest;
+import com.example.maghouse.auth.login.jwt.AuthMetrics;
 import com.example.maghouse.auth.login.jwt.JwtService;
+import com.example.maghouse.auth.login.jwt.TokenDenylist;
 import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.token.TokenRepository;
 import com.example.maghouse.auth.registration.token.TokenResponse;
@@ -48,6 +50,12 @@ public class AuthControllerIntegrationTest {
     @MockBean
     private TokenRepository tokenRepository;
 
+    @MockBean
+    private TokenDenylist tokenDenylist;
+
+    @MockBean
+    private AuthMetrics authMetrics;
+
     private ObjectMapper objectMapper;
 
     @BeforeEach
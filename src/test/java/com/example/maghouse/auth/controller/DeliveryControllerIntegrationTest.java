@@ -11,6 +11,7 @@ import com.example.maghouse.delivery.status.DeliveryStatusRequest;
 import com.example.maghouse.item.ItemEntity;
 import com.example.maghouse.item.ItemRepository;
 import com.example.maghouse.security.PasswordEncoder;
+import com.example.maghouse.stock.StockProjector;
 import com.example.maghouse.warehouse.location.WarehouseLocation;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
@@ -65,6 +66,9 @@ public class DeliveryControllerIntegrationTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private StockProjector stockProjector;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -191,6 +195,7 @@ public class DeliveryControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(deliveryStatusRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.deliveryStatus").value("DELIVERED"));
+        stockProjector.project();
 
         ItemEntity updatedItem = itemRepository.findByItemCode(item.getItemCode())
                 .orElseThrow(() -> new RuntimeException("Item noc found!"));
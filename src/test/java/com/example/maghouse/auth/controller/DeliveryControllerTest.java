@@ -3,9 +3,12 @@ package com.example.maghouse.auth.controller;
 import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.delivery.DeliveryEntity;
+import com.example.maghouse.delivery.DeliveryFilter;
+import com.example.maghouse.delivery.DeliveryPage;
 import com.example.maghouse.delivery.DeliveryRequest;
 import com.example.maghouse.delivery.DeliveryResponse;
 import com.example.maghouse.delivery.DeliveryService;
+import com.example.maghouse.delivery.DeliverySummary;
 import com.example.maghouse.delivery.status.DeliveryStatus;
 import com.example.maghouse.delivery.status.DeliveryStatusRequest;
 import com.example.maghouse.mapper.DeliveryResponseToDeliveryMapper;
@@ -23,6 +26,7 @@ import org.springframework.security.core.Authentication;
 
 import java.sql.Date;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -203,4 +207,25 @@ class DeliveryControllerTest {
         );
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void shouldSearchDeliveriesWithAllFilters() {
+        LocalDate from = LocalDate.of(2025, 5, 5);
+        LocalDate to = LocalDate.of(2025, 5, 11);
+        DeliveryFilter filter = DeliveryFilter.builder()
+                .deliveryStatus(DeliveryStatus.IN_PROGRESS)
+                .warehouseLocation(WarehouseLocation.Krakow)
+                .supplier("inpost")
+                .dateFrom(from)
+                .dateTo(to)
+                .build();
+        DeliveryPage page = new DeliveryPage(List.of(DeliverySummary.builder().id(3L).build()), null);
+        when(deliveryService.searchDeliveries(2L, 20, filter)).thenReturn(page);
+
+        ResponseEntity<DeliveryPage> response = deliveryController.searchDeliveries(2L, 20,
+                DeliveryStatus.IN_PROGRESS, WarehouseLocation.Krakow, null, "inpost", null, from, to, authentication);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+}
@@ -23,10 +23,14 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
@@ -78,6 +82,17 @@ public class ItemControllerIntegrationTest {
                 .andExpect(jsonPath("$.quantity").value(10));
     }
 
+    @Test
+    void shouldStreamItemExport() throws Exception {
+        MvcResult result = mockMvc.perform(get("/items/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+    }
+
     @Test
     void shouldUpdateItemQuantity() throws Exception {
         ItemEntity item = createAndSaveTestItem();
@@ -126,7 +141,7 @@ public class ItemControllerIntegrationTest {
     private ItemEntity createAndSaveTestItem() {
         item = ItemEntity.builder()
                 .name("Test_Name")
-                .itemCode("TestCode")
+                .itemCode("TestCode-" + UUID.randomUUID())
                 .quantity(10)
                 .user(user)
                 .build();
@@ -3,9 +3,12 @@ package com.example.maghouse.auth.controller;
 import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.item.ItemEntity;
+import com.example.maghouse.item.ItemFilter;
+import com.example.maghouse.item.ItemPage;
 import com.example.maghouse.item.ItemRequest;
 import com.example.maghouse.item.ItemResponse;
 import com.example.maghouse.item.ItemService;
+import com.example.maghouse.item.ItemSummary;
 import com.example.maghouse.mapper.ItemResponseToItemMapper;
 import com.example.maghouse.security.AuthenticationHelper;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +21,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.*;
@@ -72,6 +77,19 @@ class ItemControllerTest {
 
     }
 
+    @Test
+    void shouldReturnPageOfItems(){
+        ItemFilter filter = ItemFilter.builder().namePrefix("Test").warehouseId(2L).build();
+        ItemPage page = new ItemPage(List.of(ItemSummary.builder().id(1L).name("Test_Item").build()), 1L);
+        when(itemService.listItems(null, 50, filter)).thenReturn(page);
+
+        ResponseEntity<ItemPage> response = itemController.getItems(null, 50, "Test", null, 2L, authentication);
+
+        assertEquals(OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+        verify(authenticationHelper).getAuthenticatedUser(authentication);
+    }
+
     @Test
     void shouldCreateItemSuccessfully(){
         when(itemService.createItem(itemRequest, user)).thenReturn(item);
@@ -100,8 +118,9 @@ class ItemControllerTest {
         ItemRequest updatedItemRequest = new ItemRequest("Test_Item", 140);
 
         when(authenticationHelper.getAuthenticatedUser(authentication)).thenReturn(user);
-        when(itemService.updateItemQuantity(item.getId(), updatedItemRequest, user)).thenReturn(item);
-        when(itemResponseToItemMapper.mapToItem(item)).thenReturn(new ItemResponse());
+        ItemSummary updatedItem = ItemSummary.builder().id(item.getId()).quantity(140).build();
+        when(itemService.updateItemQuantity(item.getId(), updatedItemRequest, user)).thenReturn(updatedItem);
+        when(itemResponseToItemMapper.mapToItem(updatedItem)).thenReturn(new ItemResponse());
 
         ResponseEntity<ItemResponse> response = itemController.updateItemQuantity(item.getId(), updatedItemRequest, authentication);
 
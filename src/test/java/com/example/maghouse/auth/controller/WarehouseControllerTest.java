@@ -7,12 +7,14 @@ import com.example.maghouse.item.ItemResponse;
 import com.example.maghouse.mapper.ItemResponseToItemMapper;
 import com.example.maghouse.mapper.WarehouseResponseToWarehouseMapper;
 import com.example.maghouse.security.AuthenticationHelper;
+import com.example.maghouse.stock.StockSnapshotService;
 import com.example.maghouse.warehouse.WarehouseEntity;
 import com.example.maghouse.warehouse.WarehouseRequest;
 import com.example.maghouse.warehouse.WarehouseResponse;
 import com.example.maghouse.warehouse.WarehouseService;
 import com.example.maghouse.warehouse.location.WarehouseLocation;
 import com.example.maghouse.warehouse.location.WarehouseLocationRequest;
+import com.example.maghouse.warehouse.spacetype.ItemSpaceTypeRequest;
 import com.example.maghouse.warehouse.spacetype.WarehouseSpaceType;
 import com.example.maghouse.warehouse.spacetype.WarehouseSpaceTypeRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,6 +48,9 @@ class WarehouseControllerTest {
     @Mock
     private AuthenticationHelper authenticationHelper;
 
+    @Mock
+    private StockSnapshotService stockSnapshotService;
+
     @InjectMocks
     private WarehouseController warehouseController;
 
@@ -155,6 +160,29 @@ class WarehouseControllerTest {
         verify(warehouseService).assignWarehouseSpaceType(warehouseSpaceTypeRequest, id, user);
     }
 
+    @Test
+    void shouldAssignSpaceTypesToBatchOfItems() {
+        List<ItemSpaceTypeRequest> requests = List.of(
+                new ItemSpaceTypeRequest(1L, WarehouseSpaceType.SHELF),
+                new ItemSpaceTypeRequest(2L, WarehouseSpaceType.DRAWER));
+
+        ItemEntity first = ItemEntity.builder().id(1L).locationCode("S01A").user(user).build();
+        ItemEntity second = ItemEntity.builder().id(2L).locationCode("D01A").user(user).build();
+
+        when(warehouseService.assignWarehouseSpaceTypes(requests, user)).thenReturn(List.of(first, second));
+        when(itemResponseToItemMapper.mapToItem(first)).thenReturn(ItemResponse.builder().locationCode("S01A").build());
+        when(itemResponseToItemMapper.mapToItem(second)).thenReturn(ItemResponse.builder().locationCode("D01A").build());
+
+        ResponseEntity<List<ItemResponse>> responseEntity = warehouseController.assignSpaceTypes(requests, authentication);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(List.of("S01A", "D01A"), responseEntity.getBody().stream()
+                .map(ItemResponse::getLocationCode)
+                .toList());
+        verify(warehouseService).assignWarehouseSpaceTypes(requests, user);
+    }
+
     @Test
     void shouldAssignWarehouseLocationToItem() {
         WarehouseLocationRequest warehouseLocationRequest = new WarehouseLocationRequest(
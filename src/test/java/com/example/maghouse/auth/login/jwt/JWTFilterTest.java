@@ -0,0 +1,143 @@
+package com.example.maghouse.auth.login.jwt;
+
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.user.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JWTFilterTest {
+
+    private static final String JWT = "header.payload.signature";
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenDenylist tokenDenylist;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JWTFilter jwtFilter;
+    private MockHttpServletRequest request;
+    private MockFilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        meterRegistry = new SimpleMeterRegistry();
+        jwtFilter = new JWTFilter(jwtService, userDetailsService, tokenDenylist,
+                new AuthMetrics(meterRegistry, 1.0));
+        request = new MockHttpServletRequest("GET", "/maghouse/items/");
+        request.addHeader("Authorization", "Bearer " + JWT);
+        filterChain = new MockFilterChain();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        when(jwtService.validate(JWT)).thenReturn(Optional.of(token(7L, Role.MANAGER)));
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        User principal = assertInstanceOf(User.class, authentication.getPrincipal());
+        assertEquals(7L, principal.getId());
+        assertEquals("john.kovalsky@maghouse.com", principal.getEmail());
+        assertEquals(Role.MANAGER, principal.getRole());
+        verifyNoInteractions(userDetailsService);
+        assertNotNull(filterChain.getRequest());
+        assertEquals(1, meterRegistry.get("maghouse.auth.authenticated").tag("role", "manager").counter().count());
+        assertEquals(1, meterRegistry.get("maghouse.auth.stage").tag("stage", "verify").timer().count());
+    }
+
+    @Test
+    void shouldRejectDenylistedToken() throws Exception {
+        when(jwtService.validate(JWT)).thenReturn(Optional.of(token(7L, Role.MANAGER)));
+        when(tokenDenylist.isRevoked(any(ValidatedToken.class), eq(JWT))).thenReturn(true);
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(filterChain.getRequest());
+        assertEquals(1, meterRegistry.get("maghouse.auth.rejected").tag("reason", "revoked").counter().count());
+    }
+
+    @Test
+    void shouldLoadUserForTokenWithoutUserId() throws Exception {
+        User stored = User.builder().id(3L).email("john.kovalsky@maghouse.com").role(Role.USER).build();
+        when(jwtService.validate(JWT)).thenReturn(Optional.of(token(null, Role.USER)));
+        when(userDetailsService.loadUserByUsername("john.kovalsky@maghouse.com")).thenReturn(stored);
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertSame(stored, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
+    @Test
+    void shouldIgnoreInvalidToken() throws Exception {
+        when(jwtService.validate(JWT)).thenReturn(Optional.empty());
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(tokenDenylist, never()).isRevoked(any(), anyString());
+        assertNotNull(filterChain.getRequest());
+        assertEquals(1, meterRegistry.get("maghouse.auth.rejected").tag("reason", "invalid_token").counter().count());
+    }
+
+    @Test
+    void shouldRejectTokenWhoseRolesNoLongerMatchUser() throws Exception {
+        User stored = User.builder().id(3L).email("john.kovalsky@maghouse.com").role(Role.ADMIN).build();
+        when(jwtService.validate(JWT)).thenReturn(Optional.of(token(null, Role.USER)));
+        when(userDetailsService.loadUserByUsername("john.kovalsky@maghouse.com")).thenReturn(stored);
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, meterRegistry.get("maghouse.auth.rejected").tag("reason", "user_mismatch").counter().count());
+    }
+
+    private static ValidatedToken token(Long userId, Role role) {
+        Claims claims = Jwts.claims()
+                .setSubject("john.kovalsky@maghouse.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        claims.put("roles", role.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        if (userId != null) {
+            claims.put(ValidatedToken.USER_ID_CLAIM, userId);
+        }
+        return new ValidatedToken(claims);
+    }
+}
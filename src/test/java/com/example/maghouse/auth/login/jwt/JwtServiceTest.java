@@ -0,0 +1,168 @@
+package com.example.maghouse.auth.login.jwt;
+
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.token.Token;
+import com.example.maghouse.auth.registration.token.TokenRepository;
+import com.example.maghouse.auth.registration.user.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs256";
+
+    @Mock
+    private SecretPropertiesReader secretPropertiesReader;
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private TokenDenylist tokenDenylist;
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        when(secretPropertiesReader.readSecretKey())
+                .thenReturn(Base64.getEncoder().encodeToString(SECRET.getBytes(StandardCharsets.UTF_8)));
+        lenient().when(secretPropertiesReader.readJwtExpiration()).thenReturn(60_000L);
+        jwtService = new JwtService(secretPropertiesReader, tokenRepository, tokenDenylist,
+                new AuthMetrics(new SimpleMeterRegistry(), 1.0), 100);
+
+        user = User.builder()
+                .id(1L)
+                .firstname("John")
+                .lastname("Kovalsky")
+                .email("john.kovalsky@maghouse.com")
+                .password("password")
+                .role(Role.MANAGER)
+                .build();
+    }
+
+    @Test
+    void shouldReadSecretKeyOnlyOnce() {
+        String first = jwtService.getToken(user);
+        String second = jwtService.generateToken(new HashMap<>(), user);
+
+        assertEquals(user.getEmail(), jwtService.extractUserEmail(first));
+        assertEquals(user.getEmail(), jwtService.extractUserEmail(second));
+        assertTrue(jwtService.isValidToken(first, user));
+        verify(secretPropertiesReader, times(1)).readSecretKey();
+    }
+
+    @Test
+    void shouldReuseVerifiedClaimsForSameToken() {
+        String token = jwtService.getToken(user);
+
+        Claims first = jwtService.extractClaim(token, Function.identity());
+        Claims second = jwtService.extractClaim(token, Function.identity());
+
+        assertSame(first, second);
+        assertTrue(jwtService.extractClaim(token, claims -> claims.get("roles", List.class)).contains("ROLE_MANAGER"));
+    }
+
+    @Test
+    void shouldValidateTokenOnce() {
+        String token = jwtService.getToken(user);
+
+        ValidatedToken validated = jwtService.validate(token).orElseThrow();
+
+        assertEquals(user.getEmail(), validated.getSubject());
+        assertNotNull(validated.getTokenId());
+        assertNotEquals(validated.getTokenId(), jwtService.validate(jwtService.getToken(user)).orElseThrow().getTokenId());
+        assertTrue(validated.getRoles().contains("ROLE_MANAGER"));
+        assertTrue(validated.getExpiration().isAfter(Instant.now()));
+        assertTrue(validated.isValidFor(user));
+        assertSame(validated, jwtService.validate(token).orElseThrow());
+        assertThrows(UnsupportedOperationException.class, () -> validated.getRoles().add("ROLE_ADMIN"));
+    }
+
+    @Test
+    void shouldBuildUserFromClaims() {
+        ValidatedToken validated = jwtService.validate(jwtService.getToken(user)).orElseThrow();
+
+        User principal = validated.toUser().orElseThrow();
+
+        assertEquals(user.getId(), validated.getUserId());
+        assertEquals(user.getId(), principal.getId());
+        assertEquals(user.getEmail(), principal.getUsername());
+        assertEquals(Role.MANAGER, principal.getRole());
+        assertTrue(validated.isValidFor(principal));
+    }
+
+    @Test
+    void shouldNotBuildUserFromTokenWithoutUserId() {
+        User legacyUser = User.builder().email("legacy@maghouse.com").role(Role.USER).build();
+
+        ValidatedToken validated = jwtService.validate(jwtService.getToken(legacyUser)).orElseThrow();
+
+        assertNull(validated.getUserId());
+        assertTrue(validated.toUser().isEmpty());
+    }
+
+    @Test
+    void shouldDenylistRevokedAndDeletedTokens() {
+        Token stored = Token.builder().token("stored").user(user).build();
+        when(tokenRepository.findAllValidTokenByUser(user.getId())).thenReturn(List.of(stored));
+        when(tokenRepository.findByUser(user)).thenReturn(List.of(stored));
+
+        jwtService.revokeAllUserTokens(user.getId());
+        jwtService.deleteTokenByUser(user);
+
+        assertTrue(stored.isRevoked());
+        assertNotNull(stored.getRevokedAt());
+        assertNull(stored.getUser());
+        verify(tokenRepository, times(2)).saveAll(List.of(stored));
+        verify(tokenDenylist, times(2)).revokeAll(List.of(stored));
+        verify(tokenRepository, never()).deleteAll(anyList());
+    }
+
+    @Test
+    void shouldAcceptRefreshTokenOnlyForItsSubject() {
+        lenient().when(secretPropertiesReader.readRefreshExpiration()).thenReturn(60_000L);
+        User otherUser = User.builder().email("other@maghouse.com").role(Role.USER).build();
+
+        ValidatedToken validated = jwtService.validate(jwtService.generateRefreshToken(user)).orElseThrow();
+
+        assertTrue(validated.getRoles().isEmpty());
+        assertTrue(validated.isIssuedFor(user));
+        assertFalse(validated.isValidFor(user));
+        assertFalse(validated.isIssuedFor(otherUser));
+    }
+
+    @Test
+    void shouldRejectTamperedToken() {
+        String token = jwtService.getToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(RuntimeException.class, () -> jwtService.extractUserEmail(tampered));
+        assertTrue(jwtService.validate(tampered).isEmpty());
+        assertFalse(jwtService.isValidToken(tampered, user));
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        String token = jwtService.buildToken(new HashMap<>(), user, -1_000);
+
+        assertThrows(RuntimeException.class, () -> jwtService.extractUserEmail(token));
+        assertTrue(jwtService.validate(token).isEmpty());
+    }
+}
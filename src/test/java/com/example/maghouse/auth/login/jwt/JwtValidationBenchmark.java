@@ -0,0 +1,125 @@
+package com.example.maghouse.auth.login.jwt;
+
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.user.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-request cost of validating a bearer token in JWTFilter.
+ * legacyFilterPath repeats what the filter did before: a fresh key and parser per
+ * extract call and four parses of the same token. validateOnce hits the claims cache;
+ * validateCacheMiss cycles through more distinct tokens than its cache holds, so every
+ * call pays the full parse. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.maghouse.auth.login.jwt.JwtValidationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final int DISTINCT_TOKENS = 4096;
+
+    private SecretPropertiesReader secretPropertiesReader;
+    private JwtService cachingJwtService;
+    private JwtService missingJwtService;
+    private User user;
+    private String token;
+    private String[] distinctTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        secretPropertiesReader = new SecretPropertiesReader();
+        cachingJwtService = new JwtService(secretPropertiesReader, null, null,
+                new AuthMetrics(new SimpleMeterRegistry(), 0.1), 10_000);
+        user = User.builder()
+                .id(1L)
+                .email("john.kovalsky@maghouse.com")
+                .role(Role.MANAGER)
+                .build();
+        Map<String, Object> claims =
+                Map.of("roles", user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        token = cachingJwtService.buildToken(claims, user, TimeUnit.HOURS.toMillis(1));
+        missingJwtService = new JwtService(secretPropertiesReader, null, null,
+                new AuthMetrics(new SimpleMeterRegistry(), 0.1), 16);
+        distinctTokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            distinctTokens[i] = missingJwtService.buildToken(claims, user, TimeUnit.HOURS.toMillis(1));
+        }
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String subject = legacyExtract(Claims::getSubject);
+        String email = legacyExtract(Claims::getSubject);
+        List<?> roles = legacyExtract(claims -> claims.get("roles", List.class));
+        Date expiration = legacyExtract(Claims::getExpiration);
+        List<String> userRoles = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return subject != null && email.equals(user.getUsername())
+                && roles.containsAll(userRoles) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean validateOnce() {
+        return cachingJwtService.validate(token)
+                .map(validated -> validated.isValidFor(user))
+                .orElse(false);
+    }
+
+    @Benchmark
+    public boolean validateCacheMiss() {
+        String distinctToken = distinctTokens[next];
+        next = (next + 1) % DISTINCT_TOKENS;
+        return missingJwtService.validate(distinctToken)
+                .map(validated -> validated.isValidFor(user))
+                .orElse(false);
+    }
+
+    private <T> T legacyExtract(Function<Claims, T> claimsFunction) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretPropertiesReader.readSecretKey()));
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claimsFunction.apply(claims);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.maghouse.auth.login.jwt;
+
+import com.example.maghouse.auth.registration.token.Token;
+import com.example.maghouse.auth.registration.token.TokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenDenylistTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private SecretPropertiesReader secretPropertiesReader;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private TokenDenylist tokenDenylist;
+
+    @BeforeEach
+    void setUp() {
+        tokenDenylist = new TokenDenylist(tokenRepository, secretPropertiesReader, Duration.ofMinutes(1), nanos::get);
+    }
+
+    @Test
+    void shouldRebuildFromTokenTable() {
+        Token revoked = Token.builder()
+                .token("revoked-jwt")
+                .jti("jti-1")
+                .expiresAt(Instant.now().plusSeconds(60))
+                .revoked(true)
+                .build();
+        when(tokenRepository.findRevokedTokensValidAfter(any(Instant.class))).thenReturn(List.of(revoked));
+
+        tokenDenylist.load();
+
+        assertTrue(tokenDenylist.isRevoked(validatedToken("jti-1", 60_000), "revoked-jwt"));
+        assertFalse(tokenDenylist.isRevoked(validatedToken("jti-2", 60_000), "other-jwt"));
+        assertEquals(1, tokenDenylist.size());
+    }
+
+    @Test
+    void shouldSyncTokensRevokedOnOtherInstances() {
+        when(tokenRepository.findRevokedTokensValidAfter(any(Instant.class))).thenReturn(List.of());
+        tokenDenylist.load();
+        Token revokedElsewhere = Token.builder()
+                .token("remote-jwt")
+                .jti("jti-remote")
+                .expiresAt(Instant.now().plusSeconds(60))
+                .revoked(true)
+                .revokedAt(Instant.now())
+                .build();
+        when(tokenRepository.findRevokedSince(any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(revokedElsewhere));
+
+        tokenDenylist.sync();
+
+        assertTrue(tokenDenylist.isRevoked(validatedToken("jti-remote", 60_000), "remote-jwt"));
+        verify(tokenRepository).findRevokedSince(
+                argThat(since -> since.isBefore(Instant.now().minusSeconds(59))), any(Instant.class));
+    }
+
+    @Test
+    void shouldEvictTokenOnceItExpires() {
+        tokenDenylist.revoke(validatedToken("short-lived", 2_000), "short-lived-jwt");
+        tokenDenylist.revoke(validatedToken("long-lived", 60_000), "long-lived-jwt");
+
+        assertTrue(tokenDenylist.isRevoked(validatedToken("short-lived", 2_000), "short-lived-jwt"));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(3));
+
+        assertFalse(tokenDenylist.isRevoked(validatedToken("short-lived", 2_000), "short-lived-jwt"));
+        assertTrue(tokenDenylist.isRevoked(validatedToken("long-lived", 60_000), "long-lived-jwt"));
+        assertEquals(1, tokenDenylist.size());
+    }
+
+    @Test
+    void shouldKeyTokensWithoutJtiByValue() {
+        when(secretPropertiesReader.readJwtExpiration()).thenReturn(60_000L);
+        when(secretPropertiesReader.readRefreshExpiration()).thenReturn(120_000L);
+
+        tokenDenylist.revoke(Token.builder().token("legacy-jwt").revoked(true).build());
+
+        assertTrue(tokenDenylist.isRevoked(validatedToken(null, 60_000), "legacy-jwt"));
+        assertFalse(tokenDenylist.isRevoked(validatedToken(null, 60_000), "another-legacy-jwt"));
+    }
+
+    private static ValidatedToken validatedToken(String tokenId, long validForMillis) {
+        Claims claims = Jwts.claims()
+                .setId(tokenId)
+                .setSubject("john.kovalsky@maghouse.com")
+                .setExpiration(new Date(System.currentTimeMillis() + validForMillis));
+        return new ValidatedToken(claims);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.maghouse.auth.registration.token;
+
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.user.User;
+import com.example.maghouse.auth.registration.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.yml",
+        properties = "maghouse.security.token-purge.batch-size=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class TokenPurgeJobIntegrationTest {
+
+    @Autowired
+    private TokenPurgeJob tokenPurgeJob;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .firstname("John")
+                .lastname("Purge")
+                .email("john.purge@maghouse.com")
+                .password("password")
+                .role(Role.USER)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenRepository.deleteAll(tokenRepository.findByUser(user));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void shouldDeleteExpiredTokensOnly() {
+        Instant now = Instant.now();
+        List<Token> expired = List.of(
+                token(now.minus(1, ChronoUnit.HOURS), true),
+                token(now.minus(2, ChronoUnit.HOURS), false),
+                token(now.minus(3, ChronoUnit.HOURS), true));
+        Token revokedButLive = token(now.plus(1, ChronoUnit.HOURS), true);
+        Token legacy = token(null, true);
+        tokenRepository.saveAll(expired);
+        tokenRepository.saveAll(List.of(revokedButLive, legacy));
+
+        int deleted = tokenPurgeJob.purgeExpiredTokens();
+
+        assertEquals(3, deleted);
+        List<Token> remaining = tokenRepository.findByUser(user);
+        assertEquals(2, remaining.size());
+        assertTrue(remaining.stream().allMatch(token -> token.getExpiresAt() != null
+                && token.getExpiresAt().isAfter(now)));
+    }
+
+    private Token token(Instant expiresAt, boolean revoked) {
+        return Token.builder()
+                .token(UUID.randomUUID().toString())
+                .jti(UUID.randomUUID().toString())
+                .expiresAt(expiresAt)
+                .tokenType(TokenType.Bearer)
+                .revoked(revoked)
+                .expired(revoked)
+                .user(user)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.maghouse.auth.registration.token;
+
+import com.example.maghouse.auth.login.jwt.SecretPropertiesReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenPurgeJobTest {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_BATCHES = 3;
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private SecretPropertiesReader secretPropertiesReader;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenPurgeJob tokenPurgeJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(secretPropertiesReader.readJwtExpiration()).thenReturn(60_000L);
+        when(secretPropertiesReader.readRefreshExpiration()).thenReturn(120_000L);
+        tokenPurgeJob = new TokenPurgeJob(tokenRepository, secretPropertiesReader, meterRegistry,
+                BATCH_SIZE, MAX_BATCHES);
+    }
+
+    @Test
+    void shouldDeleteUntilBatchIsNotFull() {
+        when(tokenRepository.deleteExpiredBatch(any(Instant.class), eq(BATCH_SIZE))).thenReturn(BATCH_SIZE, 40);
+
+        int deleted = tokenPurgeJob.purgeExpiredTokens();
+
+        assertEquals(140, deleted);
+        verify(tokenRepository, times(2)).deleteExpiredBatch(any(Instant.class), eq(BATCH_SIZE));
+        verify(tokenRepository, times(1)).backfillMissingExpiry(any(Instant.class), eq(BATCH_SIZE));
+        assertEquals(140, meterRegistry.get("maghouse.token.purge.deleted").counter().count());
+    }
+
+    @Test
+    void shouldStopAfterMaxBatches() {
+        when(tokenRepository.deleteExpiredBatch(any(Instant.class), eq(BATCH_SIZE))).thenReturn(BATCH_SIZE);
+
+        int deleted = tokenPurgeJob.purgeExpiredTokens();
+
+        assertEquals(BATCH_SIZE * MAX_BATCHES, deleted);
+        verify(tokenRepository, times(MAX_BATCHES)).deleteExpiredBatch(any(Instant.class), eq(BATCH_SIZE));
+    }
+
+    @Test
+    void shouldRecordRunTime() {
+        tokenPurgeJob.purge();
+
+        assertEquals(1, meterRegistry.get("maghouse.token.purge.duration").timer().count());
+    }
+}
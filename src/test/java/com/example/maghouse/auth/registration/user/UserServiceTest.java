@@ -87,6 +87,7 @@ public class UserServiceTest {
         assertEquals(changeRoleRequest.getRole(), changeRoleResponse.getNewRole());
         verify(userRepository, times(1)).findUserByEmail(changeRoleRequest.getEmail());
         verify(userRepository, times(1)).save(user);
+        verify(jwtService, times(1)).revokeAllUserTokens(user.getId());
     }
 
     @Test
@@ -96,6 +97,7 @@ public class UserServiceTest {
         assertThrows(UsernameNotFoundException.class, () -> userService.changeUserRole(changeRoleRequest));
         verify(userRepository, times(1)).findUserByEmail(changeRoleRequest.getEmail());
         verify(userRepository, never()).save(any(User.class));
+        verify(jwtService, never()).revokeAllUserTokens(any());
     }
 
     @Test
@@ -0,0 +1,120 @@
+package com.example.maghouse.delivery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource("classpath:application-test.yml")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class DeliveryNumberGeneratorConcurrencyTest {
+
+    private static final LocalDate DATE = LocalDate.of(2099, 1, 15);
+    private static final int THREADS_PER_INSTANCE = 4;
+    private static final int NUMBERS_PER_THREAD = 25;
+
+    @Autowired
+    private DeliveryCounterRepository deliveryCounterRepository;
+
+    @Autowired
+    private DeliveryNumberGenerator deliveryNumberGenerator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        deliveryCounterRepository.deleteAll(deliveryCounterRepository.findAll().stream()
+                .filter(counter -> counter.getPeriod().startsWith("2099"))
+                .toList());
+    }
+
+    @Test
+    void shouldNeverHandOutTheSameNumberTwiceAcrossThreadsAndInstances() throws Exception {
+        List<DeliveryNumberGenerator> instances = List.of(newGenerator(), newGenerator());
+        Queue<String> generated = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(instances.size() * THREADS_PER_INSTANCE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (DeliveryNumberGenerator instance : instances) {
+                for (int i = 0; i < THREADS_PER_INSTANCE; i++) {
+                    workers.add(executor.submit(() -> {
+                        start.await();
+                        for (int n = 0; n < NUMBERS_PER_THREAD; n++) {
+                            generated.add(generate(instance, DATE));
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int total = instances.size() * THREADS_PER_INSTANCE * NUMBERS_PER_THREAD;
+        assertEquals(total, generated.size());
+        assertEquals(total, new HashSet<>(generated).size());
+        assertTrue(generated.stream().allMatch(number -> number.endsWith("/1/2099")));
+        assertEquals(1L + total, deliveryCounterRepository.findNextValue("2099-01").orElseThrow());
+    }
+
+    @Test
+    void shouldStartEachMonthFromItsOwnCounter() {
+        DeliveryNumberGenerator generator = newGenerator();
+
+        assertEquals("1/1/2099", generate(generator, DATE));
+        assertEquals("2/1/2099", generate(generator, DATE));
+        assertEquals("1/2/2099", generate(generator, DATE.plusMonths(1)));
+        assertEquals("3/1/2099", generate(newGenerator(), DATE));
+    }
+
+    @Test
+    void shouldHandOutTheNumberAgainWhenTheDeliveryRollsBack() {
+        DeliveryNumberGenerator generator = newGenerator();
+        assertEquals("1/1/2099", generate(generator, DATE));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals("2/1/2099", generator.generateDeliveryNumber(DATE));
+            status.setRollbackOnly();
+        });
+
+        assertEquals("2/1/2099", generate(generator, DATE));
+    }
+
+    @Test
+    void shouldRequireTheCallersTransaction() {
+        assertThrows(IllegalTransactionStateException.class, () -> deliveryNumberGenerator.generateDeliveryNumber());
+    }
+
+    private String generate(DeliveryNumberGenerator generator, LocalDate date) {
+        return transactionTemplate.execute(status -> generator.generateDeliveryNumber(date));
+    }
+
+    private DeliveryNumberGenerator newGenerator() {
+        return new DeliveryNumberGenerator(deliveryCounterRepository);
+    }
+}
@@ -8,7 +8,13 @@ import com.example.maghouse.delivery.status.DeliveryStatusRequest;
 import com.example.maghouse.item.ItemEntity;
 import com.example.maghouse.item.ItemRepository;
 import com.example.maghouse.security.PasswordEncoder;
+import com.example.maghouse.stock.StockProjector;
 import com.example.maghouse.warehouse.location.WarehouseLocation;
+import com.example.maghouse.warehouse.site.WarehouseSiteEntity;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import com.example.maghouse.warehouse.site.WarehouseSiteRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +30,8 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -40,6 +48,9 @@ public class DeliveryServiceIntegrationTest {
     @Autowired
     private DeliveryService deliveryService;
 
+    @Autowired
+    private StockProjector stockProjector;
+
     @Autowired
     private DeliveryRepository deliveryRepository;
 
@@ -52,6 +63,12 @@ public class DeliveryServiceIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private WarehouseSiteRepository warehouseSiteRepository;
+
+    @Autowired
+    private WarehouseSiteRegistry warehouseSiteRegistry;
+
     private User user;
     private ItemEntity item;
     private DeliveryEntity delivery;
@@ -99,7 +116,7 @@ public class DeliveryServiceIntegrationTest {
                 .name("Test name")
                 .itemCode("1024-01-235-1967")
                 .quantity(100)
-                .locationCode("RSO1B")
+                .locationCode("RS01B")
                 .user(user)
                 .warehouseEntity(null)
                 .deliveries(new ArrayList<>())
@@ -139,6 +156,35 @@ public class DeliveryServiceIntegrationTest {
         assertNotNull(result.getId());
         assertEquals(DeliveryStatus.CREATED,result.getDeliveryStatus());
         assertEquals(user.getEmail(), result.getUser().getEmail());
+        assertEquals(WarehouseLocation.Rzeszow, result.getWarehouseLocation());
+        assertEquals(WarehouseLocation.Rzeszow.getSiteId(), result.getSiteId());
+    }
+
+    @Test
+    void shouldCreateDeliveryForSiteAddedAsData(){
+        warehouseSiteRepository.saveAndFlush(WarehouseSiteEntity.builder()
+                .id(41)
+                .prefix("RZ")
+                .name("Rzeszow Zaczernie")
+                .active(true)
+                .build());
+        warehouseSiteRegistry.refresh();
+        ItemEntity siteItem = itemRepository.save(ItemEntity.builder()
+                .name("Site item")
+                .itemCode("1024-01-235-1968")
+                .quantity(5)
+                .locationCode("RZS05A")
+                .user(user)
+                .deliveries(new ArrayList<>())
+                .build());
+
+        DeliveryEntity result = deliveryService.createDelivery(
+                new DeliveryRequest("INPOST", siteItem.getName(), siteItem.getItemCode(), 5), user);
+
+        assertEquals(41, result.getSiteId());
+        assertNull(result.getWarehouseLocation());
+        assertTrue(deliveryService.getDeliveriesBySite(41).contains(result));
+        assertFalse(deliveryService.getDeliveriesByLocation(WarehouseLocation.Rzeszow).contains(result));
     }
 
     @Test
@@ -164,12 +210,29 @@ public class DeliveryServiceIntegrationTest {
         DeliveryStatusRequest deliveryStatusRequest = new DeliveryStatusRequest(DeliveryStatus.DELIVERED);
 
         DeliveryEntity updatedDelivery = deliveryService.updateDeliveryStatus(deliveryStatusRequest, delivery.getId());
+        stockProjector.project();
 
         ItemEntity updatedItem = itemRepository.findById(item.getId()).orElseThrow();
         assertEquals(DeliveryStatus.DELIVERED, updatedDelivery.getDeliveryStatus());
         assertEquals(initialQuantity + deliveryQuantity, updatedItem.getQuantity());
     }
 
+    @Test
+    void shouldIncreaseItemQuantityOnlyOnceWhenReceivedTwice(){
+        int initialQuantity = item.getQuantity();
+        int deliveryQuantity = delivery.getQuantity();
+        DeliveryStatusRequest deliveryStatusRequest = new DeliveryStatusRequest(DeliveryStatus.DELIVERED);
+
+        deliveryService.updateDeliveryStatus(deliveryStatusRequest, delivery.getId());
+        deliveryService.updateDeliveryStatus(deliveryStatusRequest, delivery.getId());
+        stockProjector.project();
+
+        ItemEntity updatedItem = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(initialQuantity + deliveryQuantity, updatedItem.getQuantity());
+        assertThrows(IllegalArgumentException.class, () -> deliveryService.updateDeliveryStatus(
+                new DeliveryStatusRequest(DeliveryStatus.IN_PROGRESS), delivery.getId()));
+    }
+
     @Test
     void shouldThrowAllWhenUserNotAuthenticated(){
         DeliveryRequest deliveryRequest = new DeliveryRequest(
@@ -189,4 +252,68 @@ public class DeliveryServiceIntegrationTest {
         );
     }
 
+
+    @Test
+    void shouldExportDeliveriesAsNdjson() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        deliveryService.exportDeliveries(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(deliveryRepository.count(), lines.length);
+        JsonNode exported = new ObjectMapper().readTree(lines[lines.length - 1]);
+        assertEquals(delivery.getId(), exported.get("id").asLong());
+        assertEquals(LocalDate.now().toString(), exported.get("date").asText());
+        assertEquals("CREATED", exported.get("deliveryStatus").asText());
+        assertEquals(item.getId(), exported.get("itemId").asLong());
+    }
+
+    @Test
+    void shouldSearchDeliveriesWithCombinedFiltersPageByPage() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 3; i++) {
+            deliveryRepository.save(searchableDelivery("Search-Supplier", DeliveryStatus.IN_PROGRESS,
+                    WarehouseLocation.Krakow, today.minusDays(i)));
+        }
+        deliveryRepository.save(searchableDelivery("Search-Supplier", DeliveryStatus.IN_PROGRESS,
+                WarehouseLocation.Krakow, today.minusDays(30)));
+        deliveryRepository.save(searchableDelivery("Search-Supplier", DeliveryStatus.CREATED,
+                WarehouseLocation.Krakow, today));
+        deliveryRepository.save(searchableDelivery("Other", DeliveryStatus.IN_PROGRESS,
+                WarehouseLocation.Krakow, today));
+        DeliveryFilter filter = DeliveryFilter.builder()
+                .deliveryStatus(DeliveryStatus.IN_PROGRESS)
+                .warehouseLocation(WarehouseLocation.Krakow)
+                .supplier("search-")
+                .dateFrom(today.minusDays(6))
+                .dateTo(today)
+                .build();
+
+        DeliveryPage first = deliveryService.searchDeliveries(null, 2, filter);
+        DeliveryPage second = deliveryService.searchDeliveries(first.getNextCursor(), 2, filter);
+
+        assertEquals(2, first.getDeliveries().size());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getDeliveries().size());
+        assertNull(second.getNextCursor());
+        assertTrue(second.getDeliveries().get(0).getId() > first.getNextCursor());
+        assertTrue(first.getDeliveries().stream().allMatch(found ->
+                found.getSupplier().equals("Search-Supplier") && !found.getDate().isBefore(today.minusDays(6))));
+    }
+
+    private DeliveryEntity searchableDelivery(String supplier, DeliveryStatus status,
+                                              WarehouseLocation location, LocalDate date) {
+        return DeliveryEntity.builder()
+                .supplier(supplier)
+                .date(Date.valueOf(date))
+                .numberDelivery("SEARCH/" + supplier + "/" + date + "/" + status)
+                .itemName(item.getName())
+                .itemCode(item.getItemCode())
+                .quantity(1)
+                .deliveryStatus(status)
+                .warehouseLocation(location)
+                .user(user)
+                .item(item)
+                .build();
+    }
 }
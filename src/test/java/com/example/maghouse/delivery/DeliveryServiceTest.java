@@ -4,11 +4,15 @@ import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.delivery.status.DeliveryStatus;
 import com.example.maghouse.delivery.status.DeliveryStatusRequest;
+import com.example.maghouse.item.ItemCache;
 import com.example.maghouse.item.ItemEntity;
 import com.example.maghouse.item.ItemRepository;
+import com.example.maghouse.item.ItemSummary;
 import com.example.maghouse.mapper.DeliveryResponseToDeliveryMapper;
-import com.example.maghouse.warehouse.WarehouseService;
+import com.example.maghouse.stock.StockLedger;
 import com.example.maghouse.warehouse.location.WarehouseLocation;
+import com.example.maghouse.warehouse.site.WarehouseSite;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,9 +23,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -41,7 +48,16 @@ public class DeliveryServiceTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private WarehouseService warehouseService;
+    private ItemCache itemCache;
+
+    @Mock
+    private SupplierIndex supplierIndex;
+
+    @Mock
+    private WarehouseSiteRegistry warehouseSiteRegistry;
+
+    @Mock
+    private StockLedger stockLedger;
 
     @InjectMocks
     private DeliveryService deliveryService;
@@ -100,8 +116,12 @@ public class DeliveryServiceTest {
 
         DeliveryResponse deliveryResponse = new DeliveryResponse();
 
-        when(itemRepository.findByItemCode("ItemCode")).thenReturn(Optional.of(item));
-        when(warehouseService.getWarehouseLocationByPrefix("R")).thenReturn(WarehouseLocation.Rzeszow);
+        when(itemRepository.findSummaryByItemCode("ItemCode")).thenReturn(Optional.of(ItemSummary.builder()
+                .itemCode("ItemCode")
+                .locationCode("RS10B")
+                .build()));
+        when(warehouseSiteRegistry.matchLocationCode("RS10B"))
+                .thenReturn(Optional.of(new WarehouseSite(3, "R", "Rzeszow", WarehouseLocation.Rzeszow)));
         when(deliveryResponseToDeliveryMapper.mapToDeliveryResponse(
                 eq(request),
                 eq(deliveryNumber),
@@ -118,9 +138,21 @@ public class DeliveryServiceTest {
 
         assertNotNull(result);
         assertEquals(WarehouseLocation.Rzeszow, result.getWarehouseLocation());
+        assertEquals(3, result.getSiteId());
         assertEquals(delivery.getNumberDelivery(), result.getNumberDelivery());
         assertEquals(delivery.getSupplier(), result.getSupplier());
         assertEquals(delivery.getItemName(), result.getItemName());
+        verify(supplierIndex).add(delivery.getSupplier());
+    }
+
+    @Test
+    void shouldQueryDeliveriesBySupplierInDatabase() {
+        when(deliveryRepository.findBySupplierContainingIgnoreCase("post")).thenReturn(List.of(delivery));
+
+        List<DeliveryEntity> result = deliveryService.getDeliveriesBySupplier("post");
+
+        assertEquals(List.of(delivery), result);
+        verifyNoInteractions(supplierIndex);
     }
 
     @Test
@@ -168,33 +200,56 @@ public class DeliveryServiceTest {
     void shouldUpdateDeliveryStatusSuccessfully(){
         DeliveryStatusRequest deliveryStatusRequest = new DeliveryStatusRequest(DeliveryStatus.IN_PROGRESS);
 
+        delivery.setDeliveryStatus(DeliveryStatus.IN_PROGRESS);
+        when(deliveryRepository.updateStatusUnlessDelivered(delivery.getId(), DeliveryStatus.IN_PROGRESS)).thenReturn(1);
         when(deliveryRepository.findById(delivery.getId())).thenReturn(Optional.of(delivery));
-        when(deliveryRepository.save(delivery)).thenReturn(delivery);
 
         DeliveryEntity result = deliveryService.updateDeliveryStatus(deliveryStatusRequest, delivery.getId());
 
         assertNotNull(result);
         assertEquals(DeliveryStatus.IN_PROGRESS, result.getDeliveryStatus());
+        verify(stockLedger, never()).recordReceipt(anyLong(), anyInt(), any(), any());
     }
 
     @Test
     void shouldUpdateStatusToDeliveryAndUpdateItemQuantity(){
         DeliveryStatusRequest deliveryStatusRequest = new DeliveryStatusRequest(DeliveryStatus.DELIVERED);
 
-        int initialQuantity = item.getQuantity();
-        int deliveryQuantity = delivery.getQuantity();
-
+        delivery.setDeliveryStatus(DeliveryStatus.DELIVERED);
+        when(deliveryRepository.updateStatusUnlessDelivered(delivery.getId(), DeliveryStatus.DELIVERED)).thenReturn(1);
         when(deliveryRepository.findById(delivery.getId())).thenReturn(Optional.of(delivery));
-        when(itemRepository.findByItemCode(delivery.getItemCode())).thenReturn(Optional.of(item));
-        when(itemRepository.save(item)).thenReturn(item);
-        when(deliveryRepository.save(delivery)).thenReturn(delivery);
+        when(itemCache.findByItemCode(delivery.getItemCode()))
+                .thenReturn(Optional.of(ItemSummary.builder().id(7L).itemCode(delivery.getItemCode()).build()));
 
         DeliveryEntity result = deliveryService.updateDeliveryStatus(deliveryStatusRequest, delivery.getId());
 
         assertNotNull(result);
         assertEquals(DeliveryStatus.DELIVERED, result.getDeliveryStatus());
-        assertEquals(initialQuantity + deliveryQuantity, item.getQuantity());
-        verify(itemRepository).save(item);
+        verify(stockLedger).recordReceipt(7L, delivery.getQuantity(), delivery.getNumberDelivery(), user.getId());
+        verify(itemRepository, never()).save(any(ItemEntity.class));
+    }
+
+    @Test
+    void shouldNotReceiveAlreadyDeliveredDeliveryTwice() {
+        DeliveryStatusRequest deliveryStatusRequest = new DeliveryStatusRequest(DeliveryStatus.DELIVERED);
+        delivery.setDeliveryStatus(DeliveryStatus.DELIVERED);
+        when(deliveryRepository.updateStatusUnlessDelivered(delivery.getId(), DeliveryStatus.DELIVERED)).thenReturn(0);
+        when(deliveryRepository.findById(delivery.getId())).thenReturn(Optional.of(delivery));
+
+        DeliveryEntity result = deliveryService.updateDeliveryStatus(deliveryStatusRequest, delivery.getId());
+
+        assertEquals(DeliveryStatus.DELIVERED, result.getDeliveryStatus());
+        verify(stockLedger, never()).recordReceipt(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldRejectStatusChangeOfDeliveredDelivery() {
+        DeliveryStatusRequest deliveryStatusRequest = new DeliveryStatusRequest(DeliveryStatus.CANCELLED);
+        delivery.setDeliveryStatus(DeliveryStatus.DELIVERED);
+        when(deliveryRepository.findById(delivery.getId())).thenReturn(Optional.of(delivery));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> deliveryService.updateDeliveryStatus(deliveryStatusRequest, delivery.getId()));
     }
 
     @Test
@@ -227,14 +282,44 @@ public class DeliveryServiceTest {
     @Test
     void shouldThrowExceptionWhenItemNotFoundDuringStatusUpdate(){
         DeliveryStatusRequest deliveryStatusRequest = new DeliveryStatusRequest(DeliveryStatus.DELIVERED);
+        when(deliveryRepository.updateStatusUnlessDelivered(delivery.getId(), DeliveryStatus.DELIVERED)).thenReturn(1);
         when(deliveryRepository.findById(delivery.getId())).thenReturn(Optional.of(delivery));
-        when(itemRepository.findByItemCode(delivery.getItemCode())).thenReturn(Optional.empty());
+        when(itemCache.findByItemCode(delivery.getItemCode())).thenReturn(Optional.empty());
 
         deliveryService.updateDeliveryStatus(deliveryStatusRequest, delivery.getId());
 
         verify(deliveryRepository, times(1)).findById(delivery.getId());
-        verify(itemRepository, times(1)).findByItemCode(delivery.getItemCode());
-        verify(deliveryRepository, times(1)).save(any(DeliveryEntity.class));
+        verify(stockLedger, never()).recordReceipt(anyLong(), anyInt(), any(), any());
+        verify(deliveryRepository, never()).save(any(DeliveryEntity.class));
         verify(itemRepository, never()).save(any(ItemEntity.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnCursorWhenMoreDeliveriesFollow() {
+        DeliveryFilter filter = DeliveryFilter.builder()
+                .deliveryStatus(DeliveryStatus.IN_PROGRESS)
+                .warehouseLocation(WarehouseLocation.Krakow)
+                .build();
+        when(deliveryRepository.findSummaries(null, filter, 2)).thenReturn(List.of(
+                DeliverySummary.builder().id(4L).build(),
+                DeliverySummary.builder().id(9L).build()));
+
+        DeliveryPage page = deliveryService.searchDeliveries(null, 1, filter);
+
+        assertEquals(1, page.getDeliveries().size());
+        assertEquals(4L, page.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectInvalidSearch() {
+        DeliveryFilter reversedDates = DeliveryFilter.builder()
+                .dateFrom(LocalDate.of(2025, 5, 10))
+                .dateTo(LocalDate.of(2025, 5, 1))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> deliveryService.searchDeliveries(null, 10, reversedDates));
+        assertThrows(IllegalArgumentException.class,
+                () -> deliveryService.searchDeliveries(null, DeliveryService.MAX_PAGE_SIZE + 1, null));
+        verify(deliveryRepository, never()).findSummaries(any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.maghouse.delivery;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SupplierIndexTest {
+
+    @Mock
+    private DeliveryRepository deliveryRepository;
+
+    @InjectMocks
+    private SupplierIndex supplierIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(deliveryRepository.countDeliveriesBySupplier()).thenReturn(List.of(
+                new SupplierMatch("InPost", 120),
+                new SupplierMatch("DPD Polska", 40),
+                new SupplierMatch("Poczta Polska", 300),
+                new SupplierMatch("Polmarket", 5)));
+        supplierIndex.load();
+    }
+
+    @Test
+    void shouldFindSuppliersContainingQueryIgnoringCase() {
+        assertEquals(List.of("DPD Polska", "Poczta Polska"),
+                supplierIndex.search("POLSKA", 10).stream().map(SupplierMatch::getSupplier).sorted().toList());
+        assertEquals("InPost", supplierIndex.search("npo", 10).get(0).getSupplier());
+        assertTrue(supplierIndex.search("xyz", 10).isEmpty());
+        assertTrue(supplierIndex.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void shouldRankPrefixMatchesFirstThenByDeliveries() {
+        List<SupplierMatch> matches = supplierIndex.search("pol", 10);
+
+        assertEquals(List.of("Polmarket", "Poczta Polska", "DPD Polska"),
+                matches.stream().map(SupplierMatch::getSupplier).toList());
+        assertEquals(1, supplierIndex.search("pol", 1).size());
+    }
+
+    @Test
+    void shouldMatchShortQueries() {
+        assertEquals(List.of("DPD Polska"),
+                supplierIndex.search("dp", 10).stream().map(SupplierMatch::getSupplier).toList());
+    }
+
+    @Test
+    void shouldIndexNewSupplierAndCountDeliveries() {
+        supplierIndex.add("Raben Logistics");
+        supplierIndex.add("InPost");
+
+        assertEquals("Raben Logistics", supplierIndex.search("logist", 10).get(0).getSupplier());
+        assertEquals(121, supplierIndex.search("inpost", 1).get(0).getDeliveries());
+    }
+
+    @Test
+    void shouldIndexNewSupplierOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            supplierIndex.add("Raben Logistics");
+
+            assertTrue(supplierIndex.search("logist", 10).isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals("Raben Logistics", supplierIndex.search("logist", 10).get(0).getSupplier());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.maghouse.item;
+
+import com.example.maghouse.MagHouseApplication;
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.user.User;
+import com.example.maghouse.auth.registration.user.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time to insert 500 items in one transaction, the way WarehouseService saves a bulk
+ * relocation. batchSize 1 is row-by-row, which is what IDENTITY ids forced; with pooled
+ * sequence ids Hibernate sends the rows in JDBC batches of batchSize. Runs against the
+ * in-memory test database, so the gap on a networked Postgres is larger. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.maghouse.item.ItemBulkInsertBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBulkInsertBenchmark {
+
+    private static final int ITEMS_PER_OPERATION = 500;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private final AtomicLong codes = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MagHouseApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.additional-location=classpath:application-test.yml",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize)
+                .run();
+        itemRepository = context.getBean(ItemRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        user = context.getBean(UserRepository.class).save(User.builder()
+                .firstname("Bench")
+                .lastname("Mark")
+                .email("bench." + batchSize + "@maghouse.com")
+                .password("password")
+                .role(Role.WAREHOUSEMAN)
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemEntity> saveAll() {
+        List<ItemEntity> items = new ArrayList<>(ITEMS_PER_OPERATION);
+        for (int i = 0; i < ITEMS_PER_OPERATION; i++) {
+            items.add(ItemEntity.builder()
+                    .name("Bolt")
+                    .itemCode("BENCH-" + batchSize + "-" + codes.incrementAndGet())
+                    .quantity(1)
+                    .user(user)
+                    .build());
+        }
+        return transactionTemplate.execute(status -> itemRepository.saveAll(items));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemBulkInsertBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.maghouse.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemCacheTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private MeterRegistry meterRegistry;
+    private ItemCache itemCache;
+    private ItemSummary summary;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemCache = new ItemCache(itemRepository, meterRegistry, 100, Duration.ofMinutes(5));
+        summary = ItemSummary.builder()
+                .id(1L)
+                .name("Screw")
+                .itemCode("1234-05-234-1234")
+                .quantity(10)
+                .locationCode("RS01A")
+                .build();
+    }
+
+    @Test
+    void shouldLoadItemOnceAndCountHitsAndMisses() {
+        when(itemRepository.findSummaryByItemCode("1234-05-234-1234")).thenReturn(Optional.of(summary));
+
+        assertSame(summary, itemCache.findByItemCode("1234-05-234-1234").orElseThrow());
+        assertSame(summary, itemCache.findByItemCode("1234-05-234-1234").orElseThrow());
+
+        verify(itemRepository, times(1)).findSummaryByItemCode("1234-05-234-1234");
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "itemsByCode").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "itemsByCode").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void shouldNotCacheUnknownItemCodes() {
+        when(itemRepository.findSummaryByItemCode("missing")).thenReturn(Optional.empty());
+
+        assertTrue(itemCache.findByItemCode("missing").isEmpty());
+        assertTrue(itemCache.findByItemCode("missing").isEmpty());
+        assertTrue(itemCache.findByItemCode(null).isEmpty());
+
+        verify(itemRepository, times(2)).findSummaryByItemCode("missing");
+    }
+
+    @Test
+    void shouldReloadItemAfterEviction() {
+        ItemSummary relocated = ItemSummary.builder().itemCode("1234-05-234-1234").locationCode("WS01A").build();
+        when(itemRepository.findSummaryByItemCode("1234-05-234-1234"))
+                .thenReturn(Optional.of(summary))
+                .thenReturn(Optional.of(relocated));
+
+        itemCache.findByItemCode("1234-05-234-1234");
+        itemCache.evictAll(List.of(ItemEntity.builder().itemCode("1234-05-234-1234").build()));
+
+        assertEquals("WS01A", itemCache.findByItemCode("1234-05-234-1234").orElseThrow().getLocationCode());
+    }
+}
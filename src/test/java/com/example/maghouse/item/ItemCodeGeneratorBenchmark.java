@@ -0,0 +1,71 @@
+package com.example.maghouse.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throughput of item code generation from four threads. legacyRandomFormat repeats the
+ * old generator: four calls on a shared Random and a String.format. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.maghouse.item.ItemCodeGeneratorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ItemCodeGeneratorBenchmark {
+
+    private static final Random RANDOM = new Random();
+
+    private ItemCodeGenerator itemCodeGenerator;
+
+    @Setup
+    public void setUp() {
+        AtomicLong sequence = new AtomicLong();
+        ItemRepository repository = mock(ItemRepository.class);
+        when(repository.nextItemCodeBlock())
+                .thenAnswer(invocation -> sequence.getAndAdd(ItemCodeGenerator.BLOCK_SIZE));
+        itemCodeGenerator = new ItemCodeGenerator(repository);
+    }
+
+    @Benchmark
+    public String legacyRandomFormat() {
+        return String.format("%04d-%02d-%03d-%04d",
+                RANDOM.nextInt(9000) + 1000, RANDOM.nextInt(90) + 10,
+                RANDOM.nextInt(900) + 100, RANDOM.nextInt(9000) + 1000);
+    }
+
+    @Benchmark
+    public String permutedSequence() {
+        return itemCodeGenerator.generateItemCode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemCodeGeneratorBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.maghouse.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemCodeGeneratorTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemCodeGenerator itemCodeGenerator;
+    private long sequence;
+
+    @BeforeEach
+    void setUp() {
+        itemCodeGenerator = new ItemCodeGenerator(itemRepository);
+        lenient().when(itemRepository.nextItemCodeBlock()).thenAnswer(invocation -> {
+            long start = sequence;
+            sequence += ItemCodeGenerator.BLOCK_SIZE;
+            return start;
+        });
+    }
+
+    @Test
+    void shouldGenerateDistinctWellFormedCodes() {
+        Set<String> codes = new HashSet<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            String code = itemCodeGenerator.generateItemCode();
+            assertTrue(code.matches("\\d{4}-\\d{2}-\\d{3}-\\d{4}"), code);
+            codes.add(code);
+        }
+
+        assertEquals(100_000, codes.size());
+        verify(itemRepository, times(100)).nextItemCodeBlock();
+    }
+
+    @Test
+    void shouldContinueFromTheReservedBlock() {
+        sequence = 5_000;
+
+        assertEquals(5_000, itemCodeGenerator.nextSequence());
+        assertEquals(5_001, itemCodeGenerator.nextSequence());
+    }
+
+    @Test
+    void shouldPermuteWithinTheCodeSpace() {
+        long last = ItemCodeGenerator.CODE_SPACE - 1;
+
+        assertEquals(ItemCodeGenerator.permute(42), ItemCodeGenerator.permute(42));
+        assertNotEquals(ItemCodeGenerator.permute(0) + 1, ItemCodeGenerator.permute(1));
+        assertTrue(ItemCodeGenerator.permute(last) < ItemCodeGenerator.CODE_SPACE);
+        assertEquals("0000-00-000-0042", ItemCodeGenerator.format(42));
+        assertThrows(IllegalStateException.class, () -> ItemCodeGenerator.permute(ItemCodeGenerator.CODE_SPACE));
+    }
+}
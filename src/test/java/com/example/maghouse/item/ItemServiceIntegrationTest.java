@@ -4,6 +4,9 @@ import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.auth.registration.user.UserRepository;
 import com.example.maghouse.security.PasswordEncoder;
+import com.example.maghouse.stock.StockProjector;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +20,10 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
@@ -35,6 +42,9 @@ public class ItemServiceIntegrationTest {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private StockProjector stockProjector;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -98,9 +108,11 @@ public class ItemServiceIntegrationTest {
         ItemEntity item = createAndSaveTestItem();
         ItemRequest updateRequest = new ItemRequest("Test Name", 100);
 
-        ItemEntity updatedItem = itemService.updateItemQuantity(item.getId(), updateRequest, user);
+        ItemSummary updatedItem = itemService.updateItemQuantity(item.getId(), updateRequest, user);
+        stockProjector.project();
 
         assertEquals(100, updatedItem.getQuantity());
+        assertEquals(100, itemRepository.findById(item.getId()).orElseThrow().getQuantity());
     }
 
     @Test
@@ -111,4 +123,55 @@ public class ItemServiceIntegrationTest {
 
         assertFalse(itemRepository.findById(item.getId()).isPresent());
     }
+
+    @Test
+    public void shouldPageThroughItemsWithFilters(){
+        for (int i = 0; i < 5; i++) {
+            itemRepository.save(ItemEntity.builder()
+                    .name("Paged_" + i)
+                    .itemCode("PAGED-" + i)
+                    .quantity(i)
+                    .locationCode("PG0" + i + "A")
+                    .user(user)
+                    .build());
+        }
+        itemRepository.save(ItemEntity.builder()
+                .name("Paged%other")
+                .itemCode("PAGED-X")
+                .quantity(1)
+                .user(user)
+                .build());
+        ItemFilter filter = ItemFilter.builder().namePrefix("Paged_").build();
+
+        ItemPage first = itemService.listItems(null, 2, filter);
+        ItemPage second = itemService.listItems(first.getNextCursor(), 2, filter);
+        ItemPage last = itemService.listItems(second.getNextCursor(), 2, filter);
+
+        assertEquals(List.of("Paged_0", "Paged_1"), first.getItems().stream().map(ItemSummary::getName).toList());
+        assertEquals(List.of("Paged_2", "Paged_3"), second.getItems().stream().map(ItemSummary::getName).toList());
+        assertEquals(List.of("Paged_4"), last.getItems().stream().map(ItemSummary::getName).toList());
+        assertNull(last.getNextCursor());
+        assertEquals(user.getId(), first.getItems().get(0).getUserId());
+
+        ItemPage byLocation = itemService.listItems(null, 10,
+                ItemFilter.builder().locationPrefix("PG03").build());
+        assertEquals(1, byLocation.getItems().size());
+        assertEquals("PAGED-3", byLocation.getItems().get(0).getItemCode());
+    }
+
+    @Test
+    public void shouldExportItemsAsNdjson() throws Exception {
+        ItemEntity item = createAndSaveTestItem();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        itemService.exportItems(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(itemRepository.count(), lines.length);
+        JsonNode exported = new ObjectMapper().readTree(lines[lines.length - 1]);
+        assertEquals(item.getId(), exported.get("id").asLong());
+        assertEquals("TestCode", exported.get("itemCode").asText());
+        assertEquals(user.getId(), exported.get("userId").asLong());
+        assertTrue(exported.get("warehouseId").isNull());
+    }
 }
@@ -3,6 +3,8 @@ package com.example.maghouse.item;
 import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.mapper.ItemResponseToItemMapper;
+import com.example.maghouse.stock.StockLedger;
+import com.example.maghouse.warehouse.slot.LocationSlotAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +30,15 @@ public class ItemServiceTest {
     @Mock
     private ItemCodeGenerator itemCodeGenerator;
 
+    @Mock
+    private LocationSlotAllocator locationSlotAllocator;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private StockLedger stockLedger;
+
     @InjectMocks
     private ItemService itemService;
 
@@ -106,14 +118,14 @@ public class ItemServiceTest {
         item.setQuantity(10);
 
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(itemRepository.save(item)).thenReturn(item);
 
-        ItemEntity updatedItem = itemService.updateItemQuantity(1L, itemRequest, user);
+        ItemSummary updatedItem = itemService.updateItemQuantity(1L, itemRequest, user);
 
         assertNotNull(updatedItem);
         assertEquals(20, updatedItem.getQuantity());
-        verify(itemRepository).findById(1L);
-        verify(itemRepository).save(item);
+        assertEquals(10, item.getQuantity());
+        verify(stockLedger).recordCount(1L, 20, user.getId());
+        verify(itemRepository, never()).save(item);
     }
 
     @Test
@@ -138,4 +150,37 @@ public class ItemServiceTest {
         assertDoesNotThrow(() -> itemService.deleteItem(1L, nullUser));
         verify(itemRepository).deleteById(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnCursorWhenMoreItemsFollow() {
+        ItemFilter filter = ItemFilter.builder().namePrefix("Scr").build();
+        when(itemRepository.findSummaries(10L, filter, 3)).thenReturn(List.of(
+                ItemSummary.builder().id(11L).build(),
+                ItemSummary.builder().id(12L).build(),
+                ItemSummary.builder().id(15L).build()));
+
+        ItemPage page = itemService.listItems(10L, 2, filter);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(12L, page.getNextCursor());
+    }
+
+    @Test
+    void shouldReturnNoCursorOnLastPage() {
+        when(itemRepository.findSummaries(null, null, 3)).thenReturn(List.of(
+                ItemSummary.builder().id(1L).build()));
+
+        ItemPage page = itemService.listItems(null, 2, null);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectPageSizeOutsideLimits() {
+        assertThrows(IllegalArgumentException.class, () -> itemService.listItems(null, 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.listItems(null, ItemService.MAX_PAGE_SIZE + 1, null));
+        verify(itemRepository, never()).findSummaries(any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.maghouse.stock;
+
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.user.User;
+import com.example.maghouse.auth.registration.user.UserRepository;
+import com.example.maghouse.item.ItemEntity;
+import com.example.maghouse.item.ItemRepository;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource("classpath:application-test.yml")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+public class StockLedgerIntegrationTest {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockProjector stockProjector;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private PendingStockMovementRepository pendingStockMovementRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private ItemEntity item;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .firstname("Stock")
+                .lastname("Keeper")
+                .email("stock.keeper." + UUID.randomUUID() + "@maghouse.com")
+                .password("password")
+                .role(Role.WAREHOUSEMAN)
+                .build());
+        item = itemRepository.save(ItemEntity.builder()
+                .name("Pallet")
+                .itemCode("STOCK-" + UUID.randomUUID())
+                .quantity(10)
+                .user(user)
+                .build());
+        stockLedger.recordOpening(item.getId(), 10, user.getId());
+    }
+
+    @Test
+    void shouldFoldPendingMovementsIntoOnHandQuantity() {
+        stockLedger.recordReceipt(item.getId(), 5, "1/1/2099", null);
+        stockLedger.recordPick(item.getId(), 3, "order-1", null);
+        stockLedger.recordAdjustment(item.getId(), -1, null);
+        stockLedger.recordRelocation(item.getId(), null, "RS01A", null);
+
+        assertEquals(1, pendingStockMovementRepository.sumPendingDelta(item.getId()));
+        assertEquals(10, itemRepository.findById(item.getId()).orElseThrow().getQuantity());
+
+        assertEquals(5, stockProjector.project());
+
+        assertEquals(11, itemRepository.findById(item.getId()).orElseThrow().getQuantity());
+        assertEquals(0, pendingStockMovementRepository.sumPendingDelta(item.getId()));
+        assertEquals(5, stockMovementRepository.findByItemIdOrderByIdAsc(item.getId()).size());
+        assertTrue(stockMovementRepository.findByItemIdOrderByIdAsc(item.getId()).stream()
+                .allMatch(movement -> movement.getDrainSeq() != null));
+        assertEquals(0, stockProjector.project());
+    }
+
+    @Test
+    void shouldResolveAStockCountAgainstTheMovementsBeforeIt() {
+        stockLedger.recordReceipt(item.getId(), 5, "3/1/2099", null);
+        stockLedger.recordCount(item.getId(), 12, null);
+        stockLedger.recordPick(item.getId(), 2, "order-2", null);
+
+        stockProjector.project();
+
+        assertEquals(10, itemRepository.findById(item.getId()).orElseThrow().getQuantity());
+        assertEquals(List.of(10, 5, -3, -2), stockMovementRepository.findByItemIdOrderByIdAsc(item.getId()).stream()
+                .map(StockMovementEntity::getQuantityDelta)
+                .toList());
+    }
+
+    @Test
+    void shouldReportStockAtAPointInTime() throws InterruptedException {
+        Thread.sleep(5);
+        Instant beforeReceipt = Instant.now();
+        Thread.sleep(5);
+        stockLedger.recordReceipt(item.getId(), 7, "2/1/2099", null);
+
+        assertEquals(10, stockLedger.stockAt(item.getId(), beforeReceipt).getQuantity());
+        assertEquals(17, stockLedger.stockAt(item.getId(), Instant.now()).getQuantity());
+    }
+}
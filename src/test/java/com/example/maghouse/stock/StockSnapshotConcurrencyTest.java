@@ -0,0 +1,111 @@
+package com.example.maghouse.stock;
+
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.user.User;
+import com.example.maghouse.auth.registration.user.UserRepository;
+import com.example.maghouse.item.ItemEntity;
+import com.example.maghouse.item.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource("classpath:application-test.yml")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class StockSnapshotConcurrencyTest {
+
+    @Autowired
+    private StockSnapshotService stockSnapshotService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockProjector stockProjector;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ItemEntity item;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .firstname("Snapshot")
+                .lastname("Racer")
+                .email("snapshot.racer." + UUID.randomUUID() + "@maghouse.com")
+                .password("password")
+                .role(Role.WAREHOUSEMAN)
+                .build());
+        item = itemRepository.save(ItemEntity.builder()
+                .name("Barrel")
+                .itemCode("RACE-" + UUID.randomUUID())
+                .quantity(10)
+                .user(user)
+                .build());
+        stockLedger.recordOpening(item.getId(), 10, user.getId());
+        stockProjector.project();
+    }
+
+    @Test
+    void shouldKeepAMovementWithALowerIdThatCommitsAfterTheSnapshot() throws InterruptedException {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        StockSnapshotEntity snapshot = outer.execute(status -> {
+            stockLedger.recordAdjustment(item.getId(), 7, null);
+            inner.executeWithoutResult(s -> stockLedger.recordAdjustment(item.getId(), 3, null));
+            inner.executeWithoutResult(s -> stockProjector.project());
+            return inner.execute(s -> stockSnapshotService.takeSnapshot(Instant.now()));
+        });
+        List<StockMovementEntity> movements = stockMovementRepository.findByItemIdOrderByIdAsc(item.getId());
+        StockMovementEntity committedLast = movements.get(1);
+        StockMovementEntity committedFirst = movements.get(2);
+
+        assertEquals(7, committedLast.getQuantityDelta());
+        assertNull(committedLast.getDrainSeq());
+        assertEquals(3, committedFirst.getQuantityDelta());
+        assertTrue(committedFirst.getDrainSeq() <= snapshot.getLastDrainSeq());
+        assertEquals(Optional.of(20L), quantityAt(Instant.now()));
+
+        stockProjector.project();
+        Thread.sleep(5);
+        StockSnapshotEntity next = stockSnapshotService.takeSnapshot(Instant.now());
+
+        assertTrue(stockMovementRepository.findById(committedLast.getId()).orElseThrow().getDrainSeq()
+                > snapshot.getLastDrainSeq());
+        assertTrue(next.getLastDrainSeq() > snapshot.getLastDrainSeq());
+        assertEquals(Optional.of(20L), quantityAt(Instant.now()));
+        assertEquals(20, itemRepository.findById(item.getId()).orElseThrow().getQuantity());
+    }
+
+    private Optional<Long> quantityAt(Instant at) {
+        return stockSnapshotService.stockAt(null, at).stream()
+                .filter(level -> level.getItemId().equals(item.getId()))
+                .map(LocationStockLevel::getQuantity)
+                .findFirst();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.maghouse.stock;
+
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.user.User;
+import com.example.maghouse.auth.registration.user.UserRepository;
+import com.example.maghouse.item.ItemEntity;
+import com.example.maghouse.item.ItemRepository;
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource("classpath:application-test.yml")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+public class StockSnapshotIntegrationTest {
+
+    @Autowired
+    private StockSnapshotService stockSnapshotService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private StockProjector stockProjector;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private ItemEntity item;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        user = userRepository.save(User.builder()
+                .firstname("Snapshot")
+                .lastname("Keeper")
+                .email("snapshot.keeper." + UUID.randomUUID() + "@maghouse.com")
+                .password("password")
+                .role(Role.WAREHOUSEMAN)
+                .build());
+        item = itemRepository.save(ItemEntity.builder()
+                .name("Crate")
+                .itemCode("SNAP-" + UUID.randomUUID())
+                .quantity(10)
+                .user(user)
+                .build());
+        stockLedger.recordOpening(item.getId(), 10, user.getId());
+        stockLedger.recordRelocation(item.getId(), null, "RS09Z", user.getId());
+        stockProjector.project();
+        Thread.sleep(5);
+    }
+
+    @Test
+    void shouldReplayMovementsAfterTheLatestSnapshot() throws InterruptedException {
+        Instant snapshotTime = Instant.now();
+        StockSnapshotEntity snapshot = stockSnapshotService.takeSnapshot(snapshotTime);
+        Thread.sleep(5);
+        stockLedger.recordReceipt(item.getId(), 5, "1/1/2099", user.getId());
+        stockLedger.recordPick(item.getId(), 2, "order-1", user.getId());
+        Thread.sleep(5);
+
+        assertTrue(snapshot.getItemCount() >= 1);
+        assertEquals(Optional.of(new LocationStockLevel(item.getId(), "RS09Z", 10)),
+                levelOf(stockSnapshotService.stockAt(WarehouseLocation.Rzeszow.getSiteId(), snapshotTime)));
+        assertEquals(Optional.of(new LocationStockLevel(item.getId(), "RS09Z", 13)),
+                levelOf(stockSnapshotService.stockAt(WarehouseLocation.Rzeszow.getSiteId(), Instant.now())));
+        assertEquals(Optional.empty(),
+                levelOf(stockSnapshotService.stockAt(WarehouseLocation.Warsaw.getSiteId(), Instant.now())));
+    }
+
+    @Test
+    void shouldMatchReplayFromTheStartOfTheLedger() throws InterruptedException {
+        Instant beforeSnapshot = Instant.now();
+        Thread.sleep(5);
+        stockLedger.recordAdjustment(item.getId(), -4, user.getId());
+        Thread.sleep(5);
+        stockSnapshotService.takeSnapshot(Instant.now());
+
+        assertEquals(Optional.of(new LocationStockLevel(item.getId(), "RS09Z", 10)),
+                levelOf(stockSnapshotService.stockAt(null, beforeSnapshot)));
+        assertEquals(Optional.of(new LocationStockLevel(item.getId(), "RS09Z", 6)),
+                levelOf(stockSnapshotService.stockAt(null, Instant.now())));
+        assertThrows(IllegalArgumentException.class, () -> stockSnapshotService.stockAt(null, null));
+    }
+
+    @Test
+    void shouldReplayMovementsDrainedAfterTheSnapshotEvenIfTheyHappenedBefore() throws InterruptedException {
+        Instant happenedAt = Instant.now();
+        Thread.sleep(5);
+        StockSnapshotEntity snapshot = stockSnapshotService.takeSnapshot(Instant.now());
+        stockLedger.record(List.of(StockMovementEntity.builder()
+                .itemId(item.getId())
+                .movementType(StockMovementType.ADJUSTMENT)
+                .quantityDelta(7)
+                .occurredAt(happenedAt)
+                .build()));
+
+        assertEquals(Optional.of(new LocationStockLevel(item.getId(), "RS09Z", 17)),
+                levelOf(stockSnapshotService.stockAt(null, Instant.now())));
+
+        stockProjector.project();
+        StockSnapshotEntity next = stockSnapshotService.takeSnapshot(Instant.now());
+
+        assertTrue(next.getLastDrainSeq() > snapshot.getLastDrainSeq());
+        assertEquals(Optional.of(new LocationStockLevel(item.getId(), "RS09Z", 17)),
+                levelOf(stockSnapshotService.stockAt(null, Instant.now())));
+    }
+
+    @Test
+    void shouldTakeTheDailySnapshotOnlyOnce() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        stockSnapshotService.scheduledSnapshot();
+        stockSnapshotService.scheduledSnapshot();
+
+        assertTrue(stockSnapshotRepository.existsBySnapshotDate(today));
+        assertEquals(1, stockSnapshotRepository.findAll().stream()
+                .filter(snapshot -> today.equals(snapshot.getSnapshotDate()))
+                .count());
+        assertEquals(0, stockSnapshotRepository.insertIfAbsent(Instant.now(), today, 0, 0, new byte[0]));
+    }
+
+    private Optional<LocationStockLevel> levelOf(List<LocationStockLevel> levels) {
+        return levels.stream().filter(level -> level.getItemId().equals(item.getId())).findFirst();
+    }
+}
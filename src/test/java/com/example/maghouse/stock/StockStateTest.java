@@ -0,0 +1,41 @@
+package com.example.maghouse.stock;
+
+import com.example.maghouse.warehouse.location.LocationCodeFormat;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockStateTest {
+
+    @Test
+    void shouldRoundTripThroughEncodedPayload() {
+        StockState state = new StockState();
+        state.apply(movement(1L, 42L, StockMovementType.OPENING, 1500, "RS01A"));
+        state.apply(movement(2L, 7L, StockMovementType.OPENING, 3, null));
+        state.apply(movement(3L, 7L, StockMovementType.PICK, -10, null));
+        state.apply(movement(4L, 300_000L, StockMovementType.OPENING, 70_000, "WS02B"));
+        state.apply(movement(5L, 42L, StockMovementType.RELOCATION, 0, "RS03C"));
+
+        StockState decoded = StockState.decode(state.encode());
+
+        assertEquals(3, decoded.size());
+        assertEquals(List.of(
+                new LocationStockLevel(7L, null, -7),
+                new LocationStockLevel(42L, "RS03C", 1500),
+                new LocationStockLevel(300_000L, "WS02B", 70_000)), decoded.levelsAt(null, LocationCodeFormat.builtIn()));
+        assertEquals(List.of(new LocationStockLevel(42L, "RS03C", 1500)), decoded.levelsAt(3, LocationCodeFormat.builtIn()));
+    }
+
+    @Test
+    void shouldRejectUnknownFormatVersion() {
+        assertThrows(IllegalStateException.class, () -> StockState.decode(new byte[]{2, 0, 0}));
+    }
+
+    private static StockMovementSummary movement(Long id, Long itemId, StockMovementType type, int delta,
+                                                 String toLocation) {
+        return new StockMovementSummary(id, itemId, type, delta, toLocation, Instant.EPOCH, null);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.maghouse.warehouse;
+
+import com.example.maghouse.MagHouseApplication;
+import com.example.maghouse.auth.registration.role.Role;
+import com.example.maghouse.auth.registration.user.User;
+import com.example.maghouse.auth.registration.user.UserRepository;
+import com.example.maghouse.item.ItemEntity;
+import com.example.maghouse.item.ItemRepository;
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import com.example.maghouse.warehouse.location.WarehouseLocationRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to move one item between two warehouses that each already hold warehouseSize items.
+ * The cost should not depend on warehouseSize: the move only writes the item row and must
+ * not load or hash the warehouses' item lists. Runs against the in-memory test database. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.maghouse.warehouse.WarehouseRelocationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WarehouseRelocationBenchmark {
+
+    private static final int INSERT_CHUNK = 500;
+
+    @Param({"100", "10000"})
+    private int warehouseSize;
+
+    private ConfigurableApplicationContext context;
+    private WarehouseService warehouseService;
+    private User user;
+    private Long movingItemId;
+    private boolean inWarsaw = true;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MagHouseApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.additional-location=classpath:application-test.yml",
+                        "spring.jpa.show-sql=false")
+                .run();
+        warehouseService = context.getBean(WarehouseService.class);
+        WarehouseRepository warehouseRepository = context.getBean(WarehouseRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        user = context.getBean(UserRepository.class).save(User.builder()
+                .firstname("Bench")
+                .lastname("Mark")
+                .email("bench.relocation@maghouse.com")
+                .password("password")
+                .role(Role.WAREHOUSEMAN)
+                .build());
+
+        WarehouseEntity warsaw = warehouseRepository.save(warehouse(WarehouseLocation.Warsaw));
+        WarehouseEntity krakow = warehouseRepository.save(warehouse(WarehouseLocation.Krakow));
+        for (WarehouseEntity warehouse : List.of(warsaw, krakow)) {
+            for (int start = 0; start < warehouseSize; start += INSERT_CHUNK) {
+                List<ItemEntity> items = new ArrayList<>(INSERT_CHUNK);
+                for (int i = start; i < Math.min(start + INSERT_CHUNK, warehouseSize); i++) {
+                    items.add(ItemEntity.builder()
+                            .name("Bolt")
+                            .itemCode("BENCH-" + warehouse.getWarehouseLocation() + "-" + i)
+                            .quantity(1)
+                            .user(user)
+                            .warehouseEntity(warehouse)
+                            .build());
+                }
+                transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(items));
+            }
+        }
+        movingItemId = itemRepository.save(ItemEntity.builder()
+                .name("Pallet")
+                .itemCode("BENCH-MOVING")
+                .quantity(1)
+                .locationCode("WS01A")
+                .user(user)
+                .warehouseEntity(warsaw)
+                .build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemEntity relocate() {
+        WarehouseLocation target = inWarsaw ? WarehouseLocation.Krakow : WarehouseLocation.Warsaw;
+        inWarsaw = !inWarsaw;
+        return warehouseService.updatedItemsToWarehouseLocation(
+                new WarehouseLocationRequest(target), movingItemId, user);
+    }
+
+    private WarehouseEntity warehouse(WarehouseLocation location) {
+        return WarehouseEntity.builder()
+                .warehouseLocation(location)
+                .user(user)
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WarehouseRelocationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -8,9 +8,16 @@ import com.example.maghouse.item.ItemRepository;
 import com.example.maghouse.security.PasswordEncoder;
 import com.example.maghouse.warehouse.location.WarehouseLocation;
 import com.example.maghouse.warehouse.location.WarehouseLocationRequest;
+import com.example.maghouse.warehouse.site.WarehouseSiteEntity;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import com.example.maghouse.warehouse.site.WarehouseSiteRepository;
+import com.example.maghouse.warehouse.slot.LocationSlotRepository;
+import com.example.maghouse.warehouse.spacetype.ItemSpaceTypeRequest;
 import com.example.maghouse.warehouse.spacetype.WarehouseSpaceType;
 import com.example.maghouse.warehouse.spacetype.WarehouseSpaceTypeRequest;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +32,8 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -54,6 +63,18 @@ public class WarehouseServiceIntegrationTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private LocationSlotRepository locationSlotRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private WarehouseSiteRepository warehouseSiteRepository;
+
+    @Autowired
+    private WarehouseSiteRegistry warehouseSiteRegistry;
+
     private User user;
     private ItemEntity item;
     private WarehouseEntity warehouseEntity;
@@ -99,7 +120,7 @@ public class WarehouseServiceIntegrationTest {
     private ItemEntity createAndSaveTestItem() {
         item = ItemEntity.builder()
                 .name("Test Name")
-                .itemCode("TEST123")
+                .itemCode("TEST-" + UUID.randomUUID())
                 .locationCode("WS01A")
                 .quantity(10)
                 .user(user)
@@ -147,6 +168,41 @@ public class WarehouseServiceIntegrationTest {
         assertEquals(user, result.getUser());
     }
 
+    @Test
+    void shouldAssignLocationsToBatchOfItems() {
+        List<ItemSpaceTypeRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ItemEntity pallet = itemRepository.save(ItemEntity.builder()
+                    .name("Pallet " + i)
+                    .itemCode("PALLET" + i)
+                    .quantity(1)
+                    .user(user)
+                    .build());
+            requests.add(new ItemSpaceTypeRequest(pallet.getId(),
+                    i == 1 ? WarehouseSpaceType.DRAWER : WarehouseSpaceType.CONTAINER));
+        }
+
+        List<ItemEntity> result = warehouseService.assignWarehouseSpaceTypes(requests, user);
+        itemRepository.flush();
+
+        assertEquals(3, result.size());
+        assertTrue(result.get(0).getLocationCode().matches("^C\\d{2}[A-C]$"));
+        assertTrue(result.get(1).getLocationCode().matches("^D\\d{2}[A-C]$"));
+        assertTrue(result.get(2).getLocationCode().matches("^C\\d{2}[A-C]$"));
+        assertEquals(3, result.stream().map(ItemEntity::getLocationCode).distinct().count());
+        result.forEach(pallet -> assertEquals(pallet.getId(),
+                locationSlotRepository.findById(pallet.getLocationCode()).orElseThrow().getItemId()));
+    }
+
+    @Test
+    void shouldRejectBatchContainingPlacedItem() {
+        List<ItemSpaceTypeRequest> requests = List.of(
+                new ItemSpaceTypeRequest(item.getId(), WarehouseSpaceType.SHELF));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> warehouseService.assignWarehouseSpaceTypes(requests, user));
+    }
+
     @Test
     void shouldUpdateLocationPrefix() {
         item.setLocationCode("RS01C");
@@ -178,9 +234,61 @@ public class WarehouseServiceIntegrationTest {
 
         assertNotNull(result);
         assertEquals("WS02B", result.getLocationCode());
+        assertEquals(WarehouseLocation.Warsaw.getSiteId(), result.getLocation().getSiteId());
+        assertTrue(itemRepository.findByLocationSite(WarehouseLocation.Warsaw.getSiteId()).stream()
+                .map(ItemEntity::getId)
+                .anyMatch(result.getId()::equals));
         assertEquals(warehouseEntity.getId(), result.getWarehouseEntity().getId());
     }
 
+    @Test
+    void shouldAssignItemsToSiteAddedAsData() {
+        warehouseSiteRepository.saveAndFlush(WarehouseSiteEntity.builder()
+                .id(40)
+                .prefix("WS")
+                .name("Warsaw South")
+                .active(true)
+                .build());
+        warehouseSiteRegistry.refresh();
+        item.setLocationCode("S03C");
+        itemRepository.saveAndFlush(item);
+
+        ItemEntity result = warehouseService.assignItemsToWarehouseLocation(
+                new WarehouseLocationRequest(null, 40), item.getId(), user);
+
+        assertEquals("WSS03C", result.getLocationCode());
+        assertEquals(40, result.getLocation().getSiteId());
+        assertEquals(40, result.getWarehouseEntity().getSiteId());
+        assertNull(result.getWarehouseEntity().getWarehouseLocation());
+        assertTrue(itemRepository.findByLocationSite(40).contains(result));
+        assertFalse(itemRepository.findByLocationSite(WarehouseLocation.Warsaw.getSiteId()).contains(result));
+    }
+
+    @Test
+    void shouldRelocateItemWithoutLoadingWarehouseItems() {
+        WarehouseEntity warsaw = createAndSaveTestWarehouse();
+        WarehouseEntity krakow = warehouseRepository.save(WarehouseEntity.builder()
+                .warehouseLocation(WarehouseLocation.Krakow)
+                .user(user)
+                .items(new ArrayList<>())
+                .build());
+        item.setWarehouseEntity(warsaw);
+        itemRepository.saveAndFlush(item);
+        entityManager.clear();
+
+        ItemEntity result = warehouseService.updatedItemsToWarehouseLocation(
+                new WarehouseLocationRequest(WarehouseLocation.Krakow), item.getId(), user);
+        itemRepository.flush();
+
+        assertEquals("KS01A", result.getLocationCode());
+        assertEquals(krakow.getId(), result.getWarehouseEntity().getId());
+        assertFalse(Hibernate.isInitialized(result.getWarehouseEntity().getItems()));
+        assertFalse(Hibernate.isInitialized(entityManager.find(WarehouseEntity.class, warsaw.getId()).getItems()));
+        entityManager.clear();
+        assertEquals(krakow.getId(),
+                itemRepository.findById(item.getId()).orElseThrow().getWarehouseEntity().getId());
+    }
+
     @Test
     void shouldThrowAllWhenUserNotAuthenticated() {
         WarehouseLocationRequest warehouseLocationRequest = new WarehouseLocationRequest(WarehouseLocation.Krakow);
@@ -3,11 +3,18 @@ package com.example.maghouse.warehouse;
 import com.example.maghouse.auth.registration.role.Role;
 import com.example.maghouse.auth.registration.user.User;
 import com.example.maghouse.auth.registration.user.UserRepository;
+import com.example.maghouse.item.ItemCache;
 import com.example.maghouse.item.ItemEntity;
 import com.example.maghouse.item.ItemRepository;
 import com.example.maghouse.mapper.WarehouseResponseToWarehouseMapper;
+import com.example.maghouse.stock.StockLedger;
+import com.example.maghouse.warehouse.location.LocationCodeFormat;
 import com.example.maghouse.warehouse.location.WarehouseLocation;
 import com.example.maghouse.warehouse.location.WarehouseLocationRequest;
+import com.example.maghouse.warehouse.site.WarehouseSite;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import com.example.maghouse.warehouse.slot.LocationSlotAllocator;
+import com.example.maghouse.warehouse.spacetype.ItemSpaceTypeRequest;
 import com.example.maghouse.warehouse.spacetype.WarehouseSpaceType;
 import com.example.maghouse.warehouse.spacetype.WarehouseSpaceTypeRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -45,6 +53,18 @@ public class WarehouseServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private LocationSlotAllocator locationSlotAllocator;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private WarehouseSiteRegistry warehouseSiteRegistry;
+
     @Mock
     private Authentication authentication;
 
@@ -96,6 +116,11 @@ public class WarehouseServiceTest {
 
         lenient().when(userDetails.getUsername()).thenReturn("john.kovalsky@maghouse.com");
         lenient().when(userRepository.findUserByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        lenient().when(warehouseSiteRegistry.siteOf(any())).thenAnswer(invocation -> {
+            WarehouseLocation location = invocation.getArgument(0);
+            return new WarehouseSite(location.getSiteId(), location.getPrefix(), location.name(), location);
+        });
+        lenient().when(warehouseSiteRegistry.getLocationCodeFormat()).thenReturn(LocationCodeFormat.builtIn());
     }
 
     @Test
@@ -108,7 +133,7 @@ public class WarehouseServiceTest {
                 .thenReturn(mockedWarehouseResponse);
         when(warehouseResponseToWarehouseMapper.mapToEntityFromResponse(any(WarehouseResponse.class)))
                 .thenReturn(new WarehouseEntity());
-        when(itemRepository.findByItemLocationStartingWith("K"))
+        when(itemRepository.findByLocationSite(WarehouseLocation.Krakow.getSiteId()))
                 .thenReturn(Collections.singletonList(item));
         when(warehouseRepository.save(any(WarehouseEntity.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -139,10 +164,8 @@ public class WarehouseServiceTest {
     void shouldAssignLocationCode() {
         WarehouseSpaceTypeRequest spaceTypeRequest = new WarehouseSpaceTypeRequest(WarehouseSpaceType.SHELF);
 
-        List<String> usedSpaceCode = List.of();
-
         when(itemRepository.findUnassignedItem(item.getId())).thenReturn(Optional.of(item));
-        when(itemRepository.findUsedLocationCodes(anyString())).thenReturn(usedSpaceCode);
+        when(locationSlotAllocator.allocate("S", item.getId())).thenReturn(Optional.of("S01A"));
 
         ItemEntity result = warehouseService.assignWarehouseSpaceType(spaceTypeRequest, item.getId(), user);
 
@@ -151,6 +174,81 @@ public class WarehouseServiceTest {
         assertEquals(user, result.getUser());
     }
 
+    @Test
+    void shouldThrowWhenNoSlotIsAvailable() {
+        WarehouseSpaceTypeRequest spaceTypeRequest = new WarehouseSpaceTypeRequest(WarehouseSpaceType.DRAWER);
+
+        when(itemRepository.findUnassignedItem(item.getId())).thenReturn(Optional.of(item));
+        when(locationSlotAllocator.allocate("D", item.getId())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> warehouseService.assignWarehouseSpaceType(spaceTypeRequest, item.getId(), user));
+        assertNull(item.getLocationCode());
+    }
+
+    @Test
+    void shouldAssignSpaceTypesToBatchOfItems() {
+        ItemEntity shelfItem = ItemEntity.builder().id(1L).name("Shelf").itemCode("code1").build();
+        ItemEntity drawerItem = ItemEntity.builder().id(2L).name("Drawer").itemCode("code2").build();
+        ItemEntity secondShelfItem = ItemEntity.builder().id(3L).name("Shelf2").itemCode("code3").build();
+        List<ItemSpaceTypeRequest> requests = List.of(
+                new ItemSpaceTypeRequest(1L, WarehouseSpaceType.SHELF),
+                new ItemSpaceTypeRequest(2L, WarehouseSpaceType.DRAWER),
+                new ItemSpaceTypeRequest(3L, WarehouseSpaceType.SHELF));
+
+        when(itemRepository.findUnassignedItems(Set.of(1L, 2L, 3L)))
+                .thenReturn(List.of(drawerItem, shelfItem, secondShelfItem));
+        when(locationSlotAllocator.allocateAll("S", List.of(1L, 3L))).thenReturn(Optional.of(List.of("S01A", "S01B")));
+        when(locationSlotAllocator.allocateAll("D", List.of(2L))).thenReturn(Optional.of(List.of("D01A")));
+
+        List<ItemEntity> result = warehouseService.assignWarehouseSpaceTypes(requests, user);
+
+        assertEquals(List.of(shelfItem, drawerItem, secondShelfItem), result);
+        assertEquals("S01A", shelfItem.getLocationCode());
+        assertEquals("D01A", drawerItem.getLocationCode());
+        assertEquals("S01B", secondShelfItem.getLocationCode());
+        assertEquals(user, drawerItem.getUser());
+        verify(itemRepository).saveAll(result);
+    }
+
+    @Test
+    void shouldRejectBatchWhenAnyItemIsAlreadyPlaced() {
+        ItemEntity shelfItem = ItemEntity.builder().id(1L).name("Shelf").itemCode("code1").build();
+        List<ItemSpaceTypeRequest> requests = List.of(
+                new ItemSpaceTypeRequest(1L, WarehouseSpaceType.SHELF),
+                new ItemSpaceTypeRequest(2L, WarehouseSpaceType.SHELF));
+
+        when(itemRepository.findUnassignedItems(Set.of(1L, 2L))).thenReturn(List.of(shelfItem));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> warehouseService.assignWarehouseSpaceTypes(requests, user));
+        assertTrue(exception.getMessage().contains("[2]"));
+        verifyNoInteractions(locationSlotAllocator);
+    }
+
+    @Test
+    void shouldRejectBatchWithDuplicateItemIds() {
+        List<ItemSpaceTypeRequest> requests = List.of(
+                new ItemSpaceTypeRequest(1L, WarehouseSpaceType.SHELF),
+                new ItemSpaceTypeRequest(1L, WarehouseSpaceType.DRAWER));
+
+        assertThrows(IllegalArgumentException.class, () -> warehouseService.assignWarehouseSpaceTypes(requests, user));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void shouldThrowWhenBatchDoesNotFitIntoFreeSlots() {
+        ItemEntity shelfItem = ItemEntity.builder().id(1L).name("Shelf").itemCode("code1").build();
+        List<ItemSpaceTypeRequest> requests = List.of(new ItemSpaceTypeRequest(1L, WarehouseSpaceType.CONTAINER));
+
+        when(itemRepository.findUnassignedItems(Set.of(1L))).thenReturn(List.of(shelfItem));
+        when(locationSlotAllocator.allocateAll("C", List.of(1L))).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> warehouseService.assignWarehouseSpaceTypes(requests, user));
+        assertNull(shelfItem.getLocationCode());
+        verify(itemRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void shouldAssignItemsToWarehouseLocation() {
         WarehouseLocationRequest locationRequest = new WarehouseLocationRequest(WarehouseLocation.Warsaw);
@@ -158,6 +256,7 @@ public class WarehouseServiceTest {
         item.setLocationCode("S01A");
 
         lenient().when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(locationSlotAllocator.relocate(eq("S01A"), eq("WS01A"), any())).thenReturn("WS01A");
         lenient().when(warehouseRepository.findFirstByWarehouseLocation(locationRequest.getWarehouseLocation()))
                 .thenReturn(Optional.of(warehouseEntity));
         lenient().when(warehouseResponseToWarehouseMapper.mapToWarehouseResponse(any(WarehouseRequest.class)))
@@ -184,6 +283,7 @@ public class WarehouseServiceTest {
         WarehouseLocationRequest locationRequest = new WarehouseLocationRequest(WarehouseLocation.Krakow);
 
         lenient().when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(locationSlotAllocator.relocate(eq("RS01A"), eq("KS01A"), any())).thenReturn("KS01A");
         lenient().when(warehouseRepository.findFirstByWarehouseLocation(locationRequest.getWarehouseLocation()))
                 .thenReturn(Optional.of(warehouseEntity));
         lenient().when(warehouseResponseToWarehouseMapper.mapToWarehouseResponse(any(WarehouseRequest.class)))
@@ -0,0 +1,126 @@
+package com.example.maghouse.warehouse.location;
+
+import com.example.maghouse.warehouse.spacetype.WarehouseSpaceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationCodeTest {
+
+    private LocationCodeFormat format = LocationCodeFormat.builtIn();
+
+    @Test
+    void shouldRoundTripCodesThroughPackedValue() {
+        for (String code : List.of("S01A", "D50C", "RS01A", "KC2000J", "WD123456Z")) {
+            LocationCode parsed = format.parse(code);
+
+            assertEquals(code, format.format(parsed));
+            assertEquals(parsed, LocationCode.fromValue(format.encode(code)));
+        }
+        LocationCode code = format.parse("RS12C");
+        assertEquals(WarehouseLocation.Rzeszow.getSiteId(), code.getSiteId());
+        assertEquals(WarehouseSpaceType.SHELF, code.getSpaceType());
+        assertEquals(12, code.getBay());
+        assertEquals('C', code.getPosition());
+        assertEquals(code, LocationCode.of(3, WarehouseSpaceType.SHELF, 12, 'C'));
+        assertEquals("3:S12C", code.toString());
+        assertEquals("S12C", code.inSite(0).toString());
+    }
+
+    @Test
+    void shouldRejectCodesOutsideTheLayout() {
+        for (String code : List.of("", "Wnull", "KSO5B", "PG01A", "WSA", "S01a", "S999999999A")) {
+            assertNull(format.parse(code), code);
+            assertEquals(LocationCodeFormat.INVALID, format.encode(code));
+        }
+        assertNull(format.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> LocationCode.fromValue(-5));
+        assertThrows(IllegalArgumentException.class,
+                () -> LocationCode.of(0, WarehouseSpaceType.SHELF, 1, '1'));
+        assertThrows(IllegalArgumentException.class,
+                () -> LocationCode.of(LocationCode.MAX_SITE_ID + 1, WarehouseSpaceType.SHELF, 1, 'A'));
+    }
+
+    @Test
+    void shouldOrderBySiteSpaceTypeBayAndPosition() {
+        List<String> sorted = Stream.of("WS02A", "S10A", "WS01B", "KS01A", "WD01A", "S02A", "WS01A")
+                .map(format::parse)
+                .sorted()
+                .map(format::format)
+                .toList();
+
+        assertEquals(List.of("S02A", "S10A", "WS01A", "WS01B", "WS02A", "WD01A", "KS01A"), sorted);
+    }
+
+    @Test
+    void shouldCoverPrefixesWithOneRange() {
+        LocationCode.Range warsaw = format.rangeOf("W");
+        LocationCode.Range unassignedShelves = format.rangeOf("S");
+
+        assertTrue(contains(warsaw, "WS01A"));
+        assertTrue(contains(warsaw, "WC999Z"));
+        assertFalse(contains(warsaw, "KS01A"));
+        assertFalse(contains(warsaw, "S01A"));
+        assertTrue(contains(unassignedShelves, "S01A"));
+        assertFalse(contains(unassignedShelves, "D01A"));
+        assertFalse(contains(unassignedShelves, "WS01A"));
+        assertTrue(contains(format.rangeOf("KD"), "KD07B"));
+        assertNull(format.rangeOf("WS0"));
+        assertNull(format.rangeOf("P"));
+    }
+
+    @Test
+    void shouldPackStableSiteIdsAndSpaceTypeKeys() {
+        assertEquals(3L << 36 | 12L << 8 | 2, format.parse("RS12C").getValue());
+        assertEquals(2L << 36 | 1L << 32 | 7L << 8 | 1, format.parse("KD07B").getValue());
+        assertEquals(2L << 32 | 3L << 8, format.parse("C03A").getValue());
+        assertThrows(IllegalArgumentException.class, () -> LocationCode.fromValue(4096L << 36));
+        assertThrows(IllegalArgumentException.class, () -> LocationCode.fromValue(3L << 32));
+    }
+
+    @Test
+    void shouldMoveCodeToAnotherSite() {
+        assertEquals("WS01A", format.format(format.parse("S01A").inSite(1)));
+        assertEquals("KD05B", format.format(format.parse("RD05B").inSite(2)));
+    }
+
+    @Test
+    void shouldParseSitesWithMultiCharacterPrefixes() {
+        format = LocationCodeFormat.of(Map.of(1, "W", 2, "K", 3, "R", 40, "WS", 41, "GDY"));
+
+        LocationCode gdynia = format.parse("GDYD07B");
+        assertEquals(41, gdynia.getSiteId());
+        assertEquals(WarehouseSpaceType.DRAWER, gdynia.getSpaceType());
+        assertEquals("GDYD07B", format.format(gdynia));
+        assertEquals(1, format.parse("WS01A").getSiteId());
+        assertEquals(40, format.parse("WSS01A").getSiteId());
+        assertEquals("WSS01A", format.format(format.parse("S01A").inSite(40)));
+        assertNull(format.parse("GDS01A"));
+        assertNull(format.parse("XYZS01A"));
+        assertThrows(IllegalStateException.class, () -> format.format(format.parse("S01A").inSite(7)));
+    }
+
+    @Test
+    void shouldKeepSiteRangesApartWhenOnePrefixStartsAnother() {
+        format = LocationCodeFormat.of(Map.of(1, "W", 2, "K", 3, "R", 40, "WS"));
+
+        LocationCode.Range warsaw = format.rangeOf("W");
+        LocationCode.Range warsawSouth = LocationCode.rangeOf(40);
+
+        assertTrue(contains(warsaw, "WS01A"));
+        assertFalse(contains(warsaw, "WSS01A"));
+        assertTrue(contains(warsawSouth, "WSC01A"));
+        assertFalse(contains(warsawSouth, "WS01A"));
+        assertTrue(contains(format.rangeOf("WSS"), "WSS01A"));
+        assertFalse(contains(format.rangeOf("WS"), "WSS01A"));
+    }
+
+    private boolean contains(LocationCode.Range range, String code) {
+        LocationCode parsed = format.parse(code);
+        return parsed.compareTo(range.first()) >= 0 && parsed.compareTo(range.last()) <= 0;
+    }
+}
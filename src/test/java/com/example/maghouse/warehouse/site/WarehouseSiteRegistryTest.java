@@ -0,0 +1,108 @@
+package com.example.maghouse.warehouse.site;
+
+import com.example.maghouse.warehouse.location.LocationCodeFormat;
+import com.example.maghouse.warehouse.location.WarehouseLocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WarehouseSiteRegistryTest {
+
+    @Mock
+    private WarehouseSiteRepository warehouseSiteRepository;
+
+    @InjectMocks
+    private WarehouseSiteRegistry warehouseSiteRegistry;
+
+    @Test
+    void shouldResolveBuiltInSitesWithoutRows() {
+        when(warehouseSiteRepository.findAll()).thenReturn(List.of());
+
+        warehouseSiteRegistry.refresh();
+
+        assertEquals(WarehouseLocation.Krakow,
+                warehouseSiteRegistry.findByPrefix("k").orElseThrow().getWarehouseLocation());
+        assertEquals("R", warehouseSiteRegistry.siteOf(WarehouseLocation.Rzeszow).getPrefix());
+        assertTrue(warehouseSiteRegistry.findByPrefix("GD").isEmpty());
+        assertEquals(3, warehouseSiteRegistry.matchLocationCode("RS01A").orElseThrow().getId());
+    }
+
+    @Test
+    void shouldMatchCodesOfSitesWhosePrefixStartsAnother() {
+        when(warehouseSiteRepository.findAll()).thenReturn(List.of(
+                site(1, "W", "Warsaw", WarehouseLocation.Warsaw),
+                site(40, "WS", "Warsaw South", null)));
+
+        warehouseSiteRegistry.refresh();
+
+        assertEquals("Warsaw", warehouseSiteRegistry.matchLocationCode("WS01A").orElseThrow().getName());
+        assertEquals("Warsaw South", warehouseSiteRegistry.matchLocationCode("WSS01A").orElseThrow().getName());
+        assertEquals(40, warehouseSiteRegistry.getLocationCodeFormat().parse("WSC02B").getSiteId());
+    }
+
+    @Test
+    void shouldKeepCodesOfInactiveSitesParseable() {
+        WarehouseSiteEntity closed = site(42, "LU", "Lublin", null);
+        closed.setActive(false);
+        when(warehouseSiteRepository.findAll()).thenReturn(List.of(closed));
+
+        warehouseSiteRegistry.refresh();
+
+        assertTrue(warehouseSiteRegistry.findById(42).isEmpty());
+        assertTrue(warehouseSiteRegistry.matchLocationCode("LUS01A").isEmpty());
+        LocationCodeFormat format = warehouseSiteRegistry.getLocationCodeFormat();
+        assertEquals("LUS01A", format.format(format.parse("LUS01A")));
+    }
+
+    @Test
+    void shouldLoadSitesWithMultiCharacterPrefixes() {
+        when(warehouseSiteRepository.findAll()).thenReturn(List.of(
+                site(1, "W", "Warsaw", WarehouseLocation.Warsaw),
+                site(4, "GD", "Gdansk", null),
+                site(5, "GDY", "Gdynia", null)));
+
+        warehouseSiteRegistry.refresh();
+
+        assertEquals("Gdansk", warehouseSiteRegistry.findByPrefix("gd").orElseThrow().getName());
+        assertEquals("Gdynia", warehouseSiteRegistry.findById(5).orElseThrow().getName());
+        assertEquals(Optional.empty(), warehouseSiteRegistry.findById(4_000));
+        assertEquals("Gdynia", warehouseSiteRegistry.matchLocationCode("GDYS01A").orElseThrow().getName());
+        assertEquals("Gdansk", warehouseSiteRegistry.matchLocationCode("GDS01A").orElseThrow().getName());
+        assertEquals(WarehouseLocation.Warsaw,
+                warehouseSiteRegistry.matchLocationCode("ws01a").orElseThrow().getWarehouseLocation());
+        assertTrue(warehouseSiteRegistry.matchLocationCode("S01A").isEmpty());
+        assertEquals(5, warehouseSiteRegistry.getSites().size());
+    }
+
+    @Test
+    void shouldPickUpChangesOnRefresh() {
+        when(warehouseSiteRepository.findAll())
+                .thenReturn(List.of())
+                .thenReturn(List.of(site(6, "PO", "Poznan", null)));
+
+        warehouseSiteRegistry.refresh();
+        assertTrue(warehouseSiteRegistry.findByPrefix("PO").isEmpty());
+
+        warehouseSiteRegistry.refresh();
+        assertEquals("Poznan", warehouseSiteRegistry.findByPrefix("PO").orElseThrow().getName());
+    }
+
+    private static WarehouseSiteEntity site(int id, String prefix, String name, WarehouseLocation location) {
+        return WarehouseSiteEntity.builder()
+                .id(id)
+                .prefix(prefix)
+                .name(name)
+                .warehouseLocation(location)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.maghouse.warehouse.slot;
+
+import com.example.maghouse.item.ItemRepository;
+import com.example.maghouse.warehouse.rack.RackLayout;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource("classpath:application-test.yml")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class LocationSlotAllocatorConcurrencyTest {
+
+    private static final String PREFIX = "RD";
+    private static final int THREADS_PER_INSTANCE = 4;
+
+    @Autowired
+    private LocationSlotAllocator locationSlotAllocator;
+
+    @Autowired
+    private LocationSlotRepository locationSlotRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private RackLayout rackLayout;
+
+    @Autowired
+    private WarehouseSiteRegistry warehouseSiteRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        locationSlotRepository.deleteAll(locationSlotRepository.findAll().stream()
+                .filter(slot -> slot.getLocationCode().startsWith(PREFIX))
+                .toList());
+    }
+
+    @Test
+    void shouldNeverHandOutTheSameCodeTwiceAcrossThreadsAndInstances() throws Exception {
+        LocationSlotAllocator otherInstance =
+                new LocationSlotAllocator(itemRepository, locationSlotRepository, rackLayout, warehouseSiteRegistry);
+        otherInstance.load();
+        List<LocationSlotAllocator> instances = List.of(locationSlotAllocator, otherInstance);
+
+        int capacity = locationSlotAllocator.capacity(PREFIX);
+        Queue<String> allocated = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(instances.size() * THREADS_PER_INSTANCE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (LocationSlotAllocator instance : instances) {
+                for (int i = 0; i < THREADS_PER_INSTANCE; i++) {
+                    workers.add(executor.submit(() -> {
+                        start.await();
+                        Optional<String> code;
+                        do {
+                            code = transactionTemplate.execute(status -> instance.allocate(PREFIX, null));
+                            code.ifPresent(allocated::add);
+                        } while (code.isPresent());
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(capacity, allocated.size());
+        assertEquals(capacity, new HashSet<>(allocated).size());
+        assertEquals(capacity, locationSlotRepository.findAll().stream()
+                .filter(slot -> slot.getLocationCode().startsWith(PREFIX))
+                .count());
+    }
+}
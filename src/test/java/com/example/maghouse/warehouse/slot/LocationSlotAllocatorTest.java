@@ -0,0 +1,231 @@
+package com.example.maghouse.warehouse.slot;
+
+import com.example.maghouse.item.ItemRepository;
+import com.example.maghouse.warehouse.rack.RackGeometry;
+import com.example.maghouse.warehouse.rack.RackGeometryProperties;
+import com.example.maghouse.warehouse.rack.RackLayout;
+import com.example.maghouse.warehouse.site.WarehouseSiteRegistry;
+import com.example.maghouse.warehouse.site.WarehouseSiteRepository;
+import com.example.maghouse.warehouse.spacetype.WarehouseSpaceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LocationSlotAllocatorTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private LocationSlotRepository locationSlotRepository;
+
+    @Mock
+    private WarehouseSiteRepository warehouseSiteRepository;
+
+    private LocationSlotAllocator locationSlotAllocator;
+    private final Set<String> claimed = new HashSet<>(List.of("S01A", "S01B", "WS01A"));
+
+    @BeforeEach
+    void setUp() {
+        RackGeometryProperties properties = new RackGeometryProperties();
+        properties.getSpaceTypes().put(WarehouseSpaceType.CONTAINER, new RackGeometry(200, 10, 10));
+        locationSlotAllocator = new LocationSlotAllocator(itemRepository, locationSlotRepository, new RackLayout(properties),
+                new WarehouseSiteRegistry(warehouseSiteRepository));
+
+        when(itemRepository.findAllUsedLocationCodes()).thenReturn(List.of("S01A", "S01B", "WS01A", "Wnull"));
+        lenient().when(locationSlotRepository.claim(anyString(), any()))
+                .thenAnswer(invocation -> claimed.add(invocation.getArgument(0)) ? 1 : 0);
+        lenient().when(locationSlotRepository.claimAll(anyList(), anyList()))
+                .thenAnswer(invocation -> claimedAll(invocation.getArgument(0)));
+        lenient().when(locationSlotRepository.release(anyString()))
+                .thenAnswer(invocation -> claimed.remove(invocation.getArgument(0)) ? 1 : 0);
+        lenient().when(locationSlotRepository.findLocationCodesStartingWith(anyString()))
+                .thenAnswer(invocation -> claimed.stream()
+                        .filter(code -> code.startsWith(invocation.getArgument(0)))
+                        .toList());
+        locationSlotAllocator.load();
+    }
+
+    @Test
+    void shouldAllocateFirstFreeSlotSkippingLoadedCodes() {
+        assertEquals(Optional.of("S01C"), locationSlotAllocator.allocate("S", 1L));
+        assertEquals(Optional.of("S02A"), locationSlotAllocator.allocate("S", 2L));
+        assertEquals(Optional.of("D01A"), locationSlotAllocator.allocate("D", 3L));
+        verify(locationSlotRepository).claim("S01C", 1L);
+    }
+
+    @Test
+    void shouldAllocateBatchInRequestOrder() {
+        assertEquals(Optional.of(List.of("S01C", "S02A", "S02B")),
+                locationSlotAllocator.allocateAll("S", List.of(7L, 8L, 9L)));
+        verify(locationSlotRepository).claimAll(List.of("S01C", "S02A", "S02B"), List.of(7L, 8L, 9L));
+    }
+
+    @Test
+    void shouldRetryBatchCodesClaimedByAnotherInstance() {
+        when(locationSlotRepository.claimAll(anyList(), anyList()))
+                .thenReturn(new int[]{1, 0})
+                .thenAnswer(invocation -> claimedAll(invocation.getArgument(0)));
+
+        assertEquals(Optional.of(List.of("S01C", "S02B")), locationSlotAllocator.allocateAll("S", List.of(7L, 8L)));
+        verify(locationSlotRepository).claimAll(List.of("S02B"), List.of(8L));
+        assertTrue(locationSlotAllocator.isOccupied("S02A"));
+    }
+
+    @Test
+    void shouldTreatRowsWithoutUpdateCountAsClaimed() {
+        when(locationSlotRepository.claimAll(anyList(), anyList()))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+
+        assertEquals(Optional.of(List.of("S01C", "S02A")), locationSlotAllocator.allocateAll("S", List.of(7L, 8L)));
+        verify(locationSlotRepository, times(1)).claimAll(anyList(), anyList());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenBatchDoesNotFit() {
+        List<Long> itemIds = new ArrayList<>();
+        for (long i = 0; i <= locationSlotAllocator.capacity("D"); i++) {
+            itemIds.add(i);
+        }
+
+        assertTrue(locationSlotAllocator.allocateAll("D", itemIds).isEmpty());
+    }
+
+    @Test
+    void shouldSkipSlotClaimedByAnotherInstance() {
+        when(locationSlotRepository.claim("S01C", 1L)).thenReturn(0);
+
+        assertEquals(Optional.of("S02A"), locationSlotAllocator.allocate("S", 1L));
+        assertTrue(locationSlotAllocator.isOccupied("S01C"));
+    }
+
+    @Test
+    void shouldReuseReleasedSlot() {
+        locationSlotAllocator.release("S01A");
+
+        verify(locationSlotRepository).release("S01A");
+        assertEquals(Optional.of("S01A"), locationSlotAllocator.allocate("S", 1L));
+    }
+
+    @Test
+    void shouldMoveOccupancyOnRelocation() {
+        assertEquals("KS01B", locationSlotAllocator.relocate("S01B", "KS01B", 1L));
+
+        assertTrue(locationSlotAllocator.isOccupied("KS01B"));
+        assertFalse(locationSlotAllocator.isOccupied("S01B"));
+        assertEquals(Optional.of("S01B"), locationSlotAllocator.allocate("S", 2L));
+    }
+
+    @Test
+    void shouldRejectRelocationWhenTargetIsTaken() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> locationSlotAllocator.relocate("S01A", "WS01A", 1L));
+
+        assertEquals("Location code WS01A is already occupied!", exception.getMessage());
+        assertTrue(locationSlotAllocator.isOccupied("S01A"));
+        verify(locationSlotRepository, never()).claim("WS01A", 1L);
+        verify(locationSlotRepository, never()).release(anyString());
+    }
+
+    @Test
+    void shouldRejectRelocationWhenTargetIsClaimedElsewhere() {
+        claimed.add("KS01A");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> locationSlotAllocator.relocate("S01A", "KS01A", 1L));
+
+        assertEquals("Location code KS01A is already occupied!", exception.getMessage());
+        assertTrue(locationSlotAllocator.isOccupied("KS01A"));
+        assertTrue(locationSlotAllocator.isOccupied("S01A"));
+        verify(locationSlotRepository, never()).release(anyString());
+    }
+
+    @Test
+    void shouldKeepCodeWhenRelocatingToSameSlot() {
+        assertEquals("WS01A", locationSlotAllocator.relocate("WS01A", "WS01A", 1L));
+
+        verify(locationSlotRepository, never()).release(anyString());
+    }
+
+    @Test
+    void shouldReloadFullBitmapAndReuseSlotFreedElsewhere() {
+        for (int i = 0; i < locationSlotAllocator.capacity("D"); i++) {
+            locationSlotAllocator.allocate("D", (long) i).orElseThrow();
+        }
+        claimed.remove("D02B");
+
+        assertEquals(Optional.of("D02B"), locationSlotAllocator.allocate("D", 1L));
+        assertTrue(locationSlotAllocator.allocate("D", 2L).isEmpty());
+    }
+
+    @Test
+    void shouldDropSlotsFreedElsewhereOnRefresh() {
+        claimed.remove("S01A");
+        when(locationSlotRepository.findAllLocationCodes()).thenAnswer(invocation -> List.copyOf(claimed));
+
+        locationSlotAllocator.refresh();
+
+        assertFalse(locationSlotAllocator.isOccupied("S01A"));
+        assertTrue(locationSlotAllocator.isOccupied("S01B"));
+        assertEquals(Optional.of("S01A"), locationSlotAllocator.allocate("S", 1L));
+    }
+
+    @Test
+    void shouldReturnEmptyWhenAllSlotsAreUsed() {
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < locationSlotAllocator.capacity("D"); i++) {
+            codes.add(locationSlotAllocator.allocate("D", (long) i).orElseThrow());
+        }
+
+        assertEquals(150, codes.size());
+        assertTrue(codes.contains("D50C"));
+        assertTrue(locationSlotAllocator.allocate("D", 0L).isEmpty());
+    }
+
+    @Test
+    void shouldScaleToConfiguredRackGeometry() {
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            codes.add(locationSlotAllocator.allocate("KC", (long) i).orElseThrow());
+        }
+
+        assertEquals(20_000, locationSlotAllocator.capacity("KC"));
+        assertEquals(20_000, codes.size());
+        assertTrue(codes.contains("KC2000J"));
+        assertTrue(locationSlotAllocator.allocate("KC", 0L).isEmpty());
+        assertFalse(locationSlotAllocator.isOccupied("C2000J"));
+    }
+
+    private int[] claimedAll(List<String> locationCodes) {
+        int[] counts = new int[locationCodes.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = claimed.add(locationCodes.get(i)) ? 1 : 0;
+        }
+        return counts;
+    }
+
+    @Test
+    void shouldIgnoreUnrecognisedLocationCodes() {
+        assertFalse(locationSlotAllocator.isOccupied("Wnull"));
+        assertFalse(locationSlotAllocator.isOccupied("S51A"));
+        assertFalse(locationSlotAllocator.isOccupied("S00A"));
+        assertFalse(locationSlotAllocator.isOccupied("S01D"));
+        assertDoesNotThrow(() -> locationSlotAllocator.release(null));
+    }
+}
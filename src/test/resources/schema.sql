@@ -0,0 +1 @@
+CREATE SEQUENCE IF NOT EXISTS item_code_seq START WITH 0 MINVALUE 0 INCREMENT BY 1000;